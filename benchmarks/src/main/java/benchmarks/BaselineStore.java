@@ -0,0 +1,87 @@
+package benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Keeps one set of baseline results for each machine profile, as a JSON file per
+ * profile in a directory. Results from different machines are never compared, since
+ * the difference between the machines would swamp any difference in the code.
+ */
+public class BaselineStore {
+
+    /**
+     * The results saved as a baseline
+     *
+     * @param profile     the machine profile they were measured on
+     * @param recorded    when they were saved
+     * @param javaVersion the Java version they were measured with
+     * @param results     the results themselves
+     */
+    public record Baseline(String profile, String recorded, String javaVersion, List<BenchmarkResult> results) {
+    }
+
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Path directory;
+
+    /**
+     * @param directory where the baseline files are kept
+     */
+    public BaselineStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Names the machine this is running on by its operating system, processor
+     * architecture, number of processors and Java feature version, e.g.
+     * {@code linux-amd64-8cpu-java21}
+     */
+    public static String currentProfile() {
+        String profile = String.format("%s-%s-%dcpu-java%d", System.getProperty("os.name"),
+                System.getProperty("os.arch"), Runtime.getRuntime().availableProcessors(), Runtime.version().feature());
+        return profile.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9.-]+", "");
+    }
+
+    /**
+     * @return the file a profile's baseline is kept in
+     */
+    public Path file(String profile) {
+        return directory.resolve(profile + ".json");
+    }
+
+    /**
+     * Replaces a profile's baseline
+     */
+    public Baseline save(String profile, List<BenchmarkResult> results) throws IOException {
+        Baseline baseline = new Baseline(profile, Instant.now().toString(), System.getProperty("java.version"),
+                List.copyOf(results));
+        Files.createDirectories(directory);
+        try (Writer writer = Files.newBufferedWriter(file(profile))) {
+            gson.toJson(baseline, writer);
+        }
+        return baseline;
+    }
+
+    /**
+     * @return a profile's baseline, or empty if none has been saved
+     */
+    public Optional<Baseline> load(String profile) throws IOException {
+        Path file = file(profile);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try (Reader reader = Files.newBufferedReader(file)) {
+            return Optional.of(gson.fromJson(reader, Baseline.class));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Saves JMH results as the baseline for this machine, or checks new results against it.
+ * <p>
+ * Usage:
+ * <pre>Baselines save &lt;results.json&gt; [profile]</pre>
+ * <pre>Baselines compare &lt;results.json&gt; [profile] [threshold %]</pre>
+ * Baselines are kept in {@code baselines/}, or the directory named by the
+ * {@code baselines.dir} system property. The profile defaults to
+ * {@link BaselineStore#currentProfile()} and the threshold to 10%. Comparing exits with
+ * status 1 if any benchmark got slower.
+ */
+public class Baselines {
+
+    public static final double DEFAULT_THRESHOLD = 0.10;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !List.of("save", "compare").contains(args[0])) {
+            System.err.println("usage: Baselines save <results.json> [profile]");
+            System.err.println("       Baselines compare <results.json> [profile] [threshold %]");
+            System.exit(2);
+        }
+        List<BenchmarkResult> results = BenchmarkResult.readJmh(Path.of(args[1]));
+        String profile = args.length > 2 ? args[2] : BaselineStore.currentProfile();
+        BaselineStore store = new BaselineStore(Path.of(System.getProperty("baselines.dir", "baselines")));
+
+        if (args[0].equals("save")) {
+            store.save(profile, results);
+            System.out.println("Saved " + results.size() + " results as the baseline for " + profile +
+                    " in " + store.file(profile));
+            return;
+        }
+
+        Optional<BaselineStore.Baseline> baseline = store.load(profile);
+        if (baseline.isEmpty()) {
+            System.err.println("No baseline for " + profile + "; save one first");
+            System.exit(2);
+        }
+        double threshold = args.length > 3 ? Double.parseDouble(args[3]) / 100 : DEFAULT_THRESHOLD;
+        RegressionComparator.Report report = new RegressionComparator(threshold)
+                .compare(baseline.get().results(), results);
+        System.out.println("Comparing with the " + profile + " baseline from " + baseline.get().recorded());
+        System.out.print(report.format());
+        if (!report.passed()) {
+            System.exit(1);
+        }
+    }
+}
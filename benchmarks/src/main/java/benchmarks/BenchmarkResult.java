@@ -0,0 +1,92 @@
+package benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One benchmark's score from a JMH run, with the confidence interval JMH reported
+ * around it (99.9% by default)
+ *
+ * @param name  the benchmark method with its parameters, e.g.
+ *              {@code benchmarks.GameBenchmark.validMoves:positions=OPENING}
+ * @param mode  the JMH mode, such as {@code avgt} or {@code thrpt}
+ * @param unit  the unit of the score, such as {@code ns/op}
+ * @param score the measured score
+ * @param lower the bottom of the confidence interval
+ * @param upper the top of the confidence interval
+ */
+public record BenchmarkResult(String name, String mode, String unit, double score, double lower, double upper) {
+
+    /**
+     * @return true if a bigger score is better, as it is for throughput
+     */
+    public boolean higherIsBetter() {
+        return mode.equals("thrpt");
+    }
+
+    /**
+     * @return true if the confidence intervals of two results overlap
+     */
+    public boolean overlaps(BenchmarkResult other) {
+        return lower <= other.upper && other.lower <= upper;
+    }
+
+    /**
+     * Reads the results file JMH writes with {@code -rf json}
+     */
+    public static List<BenchmarkResult> readJmh(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file)) {
+            return readJmh(reader);
+        }
+    }
+
+    /**
+     * Reads JMH's JSON results. A run with too few iterations to estimate an error has
+     * no interval, so its interval is just its score.
+     */
+    public static List<BenchmarkResult> readJmh(Reader reader) {
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (JsonElement element : JsonParser.parseReader(reader).getAsJsonArray()) {
+            JsonObject run = element.getAsJsonObject();
+            JsonObject metric = run.getAsJsonObject("primaryMetric");
+            double score = metric.get("score").getAsDouble();
+            JsonArray confidence = metric.getAsJsonArray("scoreConfidence");
+            double lower = confidence.get(0).getAsDouble();
+            double upper = confidence.get(1).getAsDouble();
+            if (Double.isNaN(lower) || Double.isNaN(upper)) {
+                lower = score;
+                upper = score;
+            }
+            results.add(new BenchmarkResult(name(run), run.get("mode").getAsString(),
+                    metric.get("scoreUnit").getAsString(), score, lower, upper));
+        }
+        return results;
+    }
+
+    private static String name(JsonObject run) {
+        StringBuilder name = new StringBuilder(run.get("benchmark").getAsString());
+        if (run.has("params")) {
+            // Sorted so the name does not depend on the order JMH wrote the parameters in
+            Map<String, String> params = new TreeMap<>();
+            run.getAsJsonObject("params").entrySet()
+                    .forEach(param -> params.put(param.getKey(), param.getValue().getAsString()));
+            char separator = ':';
+            for (Map.Entry<String, String> param : params.entrySet()) {
+                name.append(separator).append(param.getKey()).append('=').append(param.getValue());
+                separator = ',';
+            }
+        }
+        return name.toString();
+    }
+}
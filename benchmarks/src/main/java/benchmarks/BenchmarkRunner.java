@@ -0,0 +1,41 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes the results as JSON.
+ * <p>
+ * Usage: {@code BenchmarkRunner [-o results.json] [benchmark regex...]}. With no regex
+ * every benchmark runs. Results go to {@code jmh-result.json} unless another file is given.
+ */
+public class BenchmarkRunner {
+
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = DEFAULT_RESULT_FILE;
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .resultFormat(ResultFormatType.JSON)
+                .shouldFailOnError(true);
+
+        boolean included = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-o") && i + 1 < args.length) {
+                resultFile = args[++i];
+            } else {
+                options.include(args[i]);
+                included = true;
+            }
+        }
+        if (!included) {
+            options.include("benchmarks\\..*Benchmark");
+        }
+
+        new Runner(options.result(resultFile).build()).run();
+        System.out.println("Results written to " + resultFile);
+    }
+}
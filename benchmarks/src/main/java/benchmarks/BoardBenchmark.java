@@ -0,0 +1,66 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and writing single squares of a {@link ChessBoard}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param
+    public Positions positions;
+
+    private ChessBoard[] boards;
+    private final ChessPosition[] allSquares = new ChessPosition[64];
+
+    @Setup
+    public void setUp() {
+        boards = Arrays.stream(positions.games()).map(ChessGame::getBoard).toArray(ChessBoard[]::new);
+        for (int i = 0; i < 64; i++) {
+            allSquares[i] = new ChessPosition(i / 8 + 1, i % 8 + 1);
+        }
+    }
+
+    /**
+     * Reads every square of every board
+     */
+    @Benchmark
+    public void getPiece(Blackhole blackhole) {
+        for (ChessBoard board : boards) {
+            for (ChessPosition position : allSquares) {
+                blackhole.consume(board.getPiece(position));
+            }
+        }
+    }
+
+    /**
+     * Lifts every piece off every board and puts it back, so the boards end up unchanged
+     */
+    @Benchmark
+    public void addPiece(Blackhole blackhole) {
+        for (ChessBoard board : boards) {
+            for (ChessPosition position : allSquares) {
+                ChessPiece piece = board.getPiece(position);
+                if (piece != null) {
+                    board.addPiece(position, null);
+                    board.addPiece(position, piece);
+                }
+            }
+            blackhole.consume(board);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Fen;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures turning games into text and back, both as FEN and as the JSON the server
+ * stores and sends to clients.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param
+    public Positions positions;
+
+    private final Gson gson = new Gson();
+    private String[] fens;
+    private ChessGame[] games;
+    private String[] json;
+
+    @Setup
+    public void setUp() {
+        fens = positions.fens().toArray(new String[0]);
+        games = positions.games();
+        json = new String[games.length];
+        for (int i = 0; i < games.length; i++) {
+            json[i] = gson.toJson(games[i]);
+        }
+    }
+
+    @Benchmark
+    public void fenParse(Blackhole blackhole) {
+        for (String fen : fens) {
+            blackhole.consume(Fen.parse(fen));
+        }
+    }
+
+    @Benchmark
+    public void fenFormat(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(Fen.format(game));
+        }
+    }
+
+    @Benchmark
+    public void jsonWrite(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(gson.toJson(game));
+        }
+    }
+
+    @Benchmark
+    public void jsonRead(Blackhole blackhole) {
+        for (String text : json) {
+            blackhole.consume(gson.fromJson(text, ChessGame.class));
+        }
+    }
+}
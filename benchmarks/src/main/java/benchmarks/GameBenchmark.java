@@ -0,0 +1,101 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link ChessGame} calls a server makes on every move: listing legal
+ * moves, checking game status and making the move itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    @Param
+    public Positions positions;
+
+    private ChessGame[] games;
+    private ChessPosition[][] pieces;
+    private ChessMove[] firstMoves;
+
+    @Setup
+    public void setUp() {
+        games = positions.games();
+        pieces = new ChessPosition[games.length][];
+        firstMoves = new ChessMove[games.length];
+        for (int i = 0; i < games.length; i++) {
+            ChessGame game = games[i];
+            List<ChessPosition> own = new ArrayList<>();
+            for (int row = 1; row <= 8; row++) {
+                for (int col = 1; col <= 8; col++) {
+                    ChessPosition position = new ChessPosition(row, col);
+                    ChessPiece piece = game.getBoard().getPiece(position);
+                    if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                        own.add(position);
+                    }
+                }
+            }
+            pieces[i] = own.toArray(new ChessPosition[0]);
+            firstMoves[i] = game.allValidMoves().iterator().next();
+        }
+    }
+
+    /**
+     * Lists the legal moves of every piece belonging to the side to move
+     */
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (int i = 0; i < games.length; i++) {
+            for (ChessPosition position : pieces[i]) {
+                blackhole.consume(games[i].validMoves(position));
+            }
+        }
+    }
+
+    @Benchmark
+    public void isInCheck(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.isInCheck(game.getTeamTurn()));
+        }
+    }
+
+    @Benchmark
+    public void isInCheckmate(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.isInCheckmate(game.getTeamTurn()));
+        }
+    }
+
+    /**
+     * Copies each game and makes one move in the copy. Compare with {@link #copy} to
+     * see what the move itself costs.
+     */
+    @Benchmark
+    public void makeMove(Blackhole blackhole) throws InvalidMoveException {
+        for (int i = 0; i < games.length; i++) {
+            ChessGame game = new ChessGame(games[i]);
+            game.makeMove(firstMoves[i]);
+            blackhole.consume(game);
+        }
+    }
+
+    @Benchmark
+    public void copy(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(new ChessGame(game));
+        }
+    }
+}
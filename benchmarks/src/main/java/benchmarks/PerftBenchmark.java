@@ -0,0 +1,39 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+import chess.PerftPosition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perft from the published positions, so whole-tree move generation speed is tracked
+ * alongside the single-call benchmarks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+
+    @Param({"START", "KIWIPETE", "MIDDLEGAME"})
+    public PerftPosition position;
+
+    @Param("3")
+    public int depth;
+
+    private ChessGame game;
+
+    @Setup
+    public void setUp() {
+        game = position.game();
+    }
+
+    @Benchmark
+    public long perft() {
+        return Perft.perft(game, depth);
+    }
+}
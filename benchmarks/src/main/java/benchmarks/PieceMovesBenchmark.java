@@ -0,0 +1,68 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ChessPiece#pieceMoves(ChessBoard, ChessPosition)} for one type of piece
+ * at a time, over every piece of that type in a group of positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceMovesBenchmark {
+
+    @Param
+    public Positions positions;
+
+    @Param
+    public ChessPiece.PieceType pieceType;
+
+    private ChessBoard[] boards;
+    private ChessPosition[][] squares;
+
+    @Setup
+    public void setUp() {
+        ChessGame[] games = positions.games();
+        boards = new ChessBoard[games.length];
+        squares = new ChessPosition[games.length][];
+        for (int i = 0; i < games.length; i++) {
+            boards[i] = games[i].getBoard();
+            List<ChessPosition> found = new ArrayList<>();
+            for (int row = 1; row <= 8; row++) {
+                for (int col = 1; col <= 8; col++) {
+                    ChessPosition position = new ChessPosition(row, col);
+                    ChessPiece piece = boards[i].getPiece(position);
+                    if (piece != null && piece.getPieceType() == pieceType) {
+                        found.add(position);
+                    }
+                }
+            }
+            squares[i] = found.toArray(new ChessPosition[0]);
+        }
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (int i = 0; i < boards.length; i++) {
+            ChessBoard board = boards[i];
+            for (ChessPosition position : squares[i]) {
+                Collection<ChessMove> moves = board.getPiece(position).pieceMoves(board, position);
+                blackhole.consume(moves);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Fen;
+
+import java.util.List;
+
+/**
+ * The fixed set of positions every benchmark runs over, grouped by stage of the game.
+ * Changing a position here makes new results incomparable with old ones, so add new
+ * groups rather than editing existing ones.
+ */
+public enum Positions {
+    OPENING(List.of(
+            Fen.START_POSITION,
+            "rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2",
+            "r1bqkbnr/pppp1ppp/2n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3",
+            "rnbqkb1r/pp2pppp/3p1n2/8/3NP3/8/PPP2PPP/RNBQKB1R w KQkq - 1 5",
+            "rnbqkb1r/ppp1pppp/5n2/3p4/2PP4/8/PP2PPPP/RNBQKBNR w KQkq - 1 3"
+    )),
+    MIDDLEGAME(List.of(
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "r2q1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R w KQ - 0 9",
+            "2rq1rk1/pb1nbppp/1p2pn2/2pp4/2PP4/1PN1PN2/PB2BPPP/2RQ1RK1 w - - 2 11",
+            "r1b2rk1/2q1bppp/p2ppn2/1p6/3BPP2/2N2B2/PPPQ2PP/2KR3R w - - 4 14"
+    )),
+    ENDGAME(List.of(
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "8/8/4k3/3p4/3P4/4K3/8/8 w - - 0 1",
+            "8/5pk1/6p1/8/8/6P1/5PK1/3R4 w - - 0 40",
+            "6k1/5ppp/8/8/8/8/q4PPP/1R4K1 w - - 0 30",
+            "8/8/8/3kb3/8/3KN3/8/8 b - - 0 60"
+    ));
+
+    private final List<String> fens;
+
+    Positions(List<String> fens) {
+        this.fens = fens;
+    }
+
+    /**
+     * @return the positions in this group as FEN strings
+     */
+    public List<String> fens() {
+        return fens;
+    }
+
+    /**
+     * @return a fresh game for each position in this group
+     */
+    public ChessGame[] games() {
+        return fens.stream().map(Fen::parse).toArray(ChessGame[]::new);
+    }
+}
@@ -0,0 +1,118 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a run's results with a baseline, benchmark by benchmark.
+ * <p>
+ * A benchmark only counts as slower or faster when its score moved by more than the
+ * threshold and its confidence interval no longer overlaps the baseline's, so a change
+ * has to be both large and clearly more than noise.
+ */
+public class RegressionComparator {
+
+    public enum Verdict {
+        SAME, FASTER, SLOWER, NEW, MISSING
+    }
+
+    /**
+     * How one benchmark compares with its baseline
+     *
+     * @param name     the benchmark
+     * @param verdict  whether it got better, worse or stayed the same
+     * @param baseline the baseline result, or null if it is new
+     * @param current  the new result, or null if it is missing
+     */
+    public record Comparison(String name, Verdict verdict, BenchmarkResult baseline, BenchmarkResult current) {
+
+        /**
+         * @return the change in score as a fraction of the baseline score, or NaN if there
+         * is nothing to compare
+         */
+        public double change() {
+            if (baseline == null || current == null || baseline.score() == 0) {
+                return Double.NaN;
+            }
+            return (current.score() - baseline.score()) / baseline.score();
+        }
+    }
+
+    /**
+     * Every benchmark's comparison, in the order the new run listed them
+     */
+    public record Report(List<Comparison> comparisons, double threshold) {
+
+        /**
+         * @return true if no benchmark got slower
+         */
+        public boolean passed() {
+            return comparisons.stream().noneMatch(comparison -> comparison.verdict() == Verdict.SLOWER);
+        }
+
+        /**
+         * @return one line per benchmark, then PASS or FAIL
+         */
+        public String format() {
+            StringBuilder text = new StringBuilder();
+            for (Comparison comparison : comparisons) {
+                text.append(String.format("%-8s %-70s %14s %14s %8s%n", comparison.verdict(), comparison.name(),
+                        score(comparison.baseline()), score(comparison.current()), percent(comparison.change())));
+            }
+            long slower = comparisons.stream().filter(comparison -> comparison.verdict() == Verdict.SLOWER).count();
+            text.append(passed() ? "PASS" : "FAIL: " + slower + " slower")
+                    .append(String.format(" (threshold %.0f%%)%n", threshold * 100));
+            return text.toString();
+        }
+
+        private static String score(BenchmarkResult result) {
+            return result == null ? "-" : String.format("%.3f %s", result.score(), result.unit());
+        }
+
+        private static String percent(double change) {
+            return Double.isNaN(change) ? "" : String.format("%+.1f%%", change * 100);
+        }
+    }
+
+    private final double threshold;
+
+    /**
+     * @param threshold the smallest change that can count, as a fraction of the
+     *                  baseline score (0.1 for 10%)
+     */
+    public RegressionComparator(double threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must not be negative");
+        }
+        this.threshold = threshold;
+    }
+
+    public Report compare(List<BenchmarkResult> baseline, List<BenchmarkResult> current) {
+        Map<String, BenchmarkResult> remaining = new LinkedHashMap<>();
+        baseline.forEach(result -> remaining.put(result.name(), result));
+
+        List<Comparison> comparisons = new ArrayList<>();
+        for (BenchmarkResult result : current) {
+            BenchmarkResult before = remaining.remove(result.name());
+            comparisons.add(new Comparison(result.name(), verdict(before, result), before, result));
+        }
+        for (BenchmarkResult before : remaining.values()) {
+            comparisons.add(new Comparison(before.name(), Verdict.MISSING, before, null));
+        }
+        return new Report(comparisons, threshold);
+    }
+
+    private Verdict verdict(BenchmarkResult before, BenchmarkResult after) {
+        if (before == null || !before.mode().equals(after.mode()) || !before.unit().equals(after.unit())) {
+            return Verdict.NEW;
+        }
+        double change = before.score() == 0 ? 0 : (after.score() - before.score()) / before.score();
+        if (Math.abs(change) <= threshold || after.overlaps(before)) {
+            return Verdict.SAME;
+        }
+        boolean better = after.higherIsBetter() ? change > 0 : change < 0;
+        return better ? Verdict.FASTER : Verdict.SLOWER;
+    }
+}
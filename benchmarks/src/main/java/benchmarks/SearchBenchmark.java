@@ -0,0 +1,62 @@
+package benchmarks;
+
+import chess.PerftPosition;
+import chess.engine.Position;
+import chess.engine.Search;
+import chess.engine.SearchFeature;
+import chess.engine.SearchLimits;
+import chess.engine.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed-depth engine search with one selective search feature turned off at a time,
+ * or none, or all, so what each feature saves can be compared. The table is cleared
+ * before every search so each one starts from nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"START", "KIWIPETE", "MIDDLEGAME"})
+    public PerftPosition position;
+
+    @Param({"NONE", "PRINCIPAL_VARIATION", "ASPIRATION_WINDOWS", "NULL_MOVE", "LATE_MOVE_REDUCTIONS", "FUTILITY",
+            "ALL"})
+    public String disabled;
+
+    @Param("6")
+    public int depth;
+
+    private Position start;
+    private Set<SearchFeature> features;
+    private TranspositionTable table;
+
+    @Setup
+    public void setUp() {
+        start = Position.of(position.game());
+        features = SearchFeature.all();
+        switch (disabled) {
+            case "NONE" -> { }
+            case "ALL" -> features.clear();
+            default -> features.remove(SearchFeature.valueOf(disabled));
+        }
+        table = new TranspositionTable(16);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Benchmark
+    public long search() {
+        return new Search(start.copy(), table, features).run(SearchLimits.depth(depth), null).nodes();
+    }
+}
@@ -0,0 +1,112 @@
+package benchmarks;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+
+public class RegressionComparatorTests {
+
+    private static final String JMH_JSON = """
+            [
+              {
+                "benchmark": "benchmarks.GameBenchmark.validMoves",
+                "mode": "avgt",
+                "params": {"positions": "OPENING"},
+                "primaryMetric": {"score": 100.0, "scoreError": 5.0, "scoreConfidence": [95.0, 105.0], "scoreUnit": "ns/op"}
+              },
+              {
+                "benchmark": "benchmarks.PerftBenchmark.perft",
+                "mode": "thrpt",
+                "params": {"position": "KIWIPETE", "depth": "3"},
+                "primaryMetric": {"score": 20.0, "scoreError": "NaN", "scoreConfidence": ["NaN", "NaN"], "scoreUnit": "ops/ms"}
+              }
+            ]
+            """;
+
+    private final RegressionComparator comparator = new RegressionComparator(0.10);
+
+    @Test
+    @DisplayName("Read JMH Results")
+    public void readJmh() {
+        List<BenchmarkResult> results = BenchmarkResult.readJmh(new StringReader(JMH_JSON));
+
+        Assertions.assertEquals(List.of(
+                new BenchmarkResult("benchmarks.GameBenchmark.validMoves:positions=OPENING", "avgt", "ns/op",
+                        100, 95, 105),
+                new BenchmarkResult("benchmarks.PerftBenchmark.perft:depth=3,position=KIWIPETE", "thrpt", "ops/ms",
+                        20, 20, 20)), results);
+    }
+
+    @Test
+    @DisplayName("Large Change Outside Confidence Interval Fails")
+    public void slower() {
+        var before = result("avgt", 100, 95, 105);
+        var after = result("avgt", 130, 125, 135);
+
+        RegressionComparator.Report report = comparator.compare(List.of(before), List.of(after));
+
+        Assertions.assertEquals(RegressionComparator.Verdict.SLOWER, report.comparisons().get(0).verdict());
+        Assertions.assertEquals(0.30, report.comparisons().get(0).change(), 1e-9);
+        Assertions.assertFalse(report.passed());
+        Assertions.assertTrue(report.format().contains("FAIL"));
+    }
+
+    @Test
+    @DisplayName("Noisy Or Small Changes Pass")
+    public void same() {
+        var before = result("avgt", 100, 95, 105);
+
+        // Large, but the intervals overlap
+        Assertions.assertEquals(RegressionComparator.Verdict.SAME,
+                comparator.compare(List.of(before), List.of(result("avgt", 120, 100, 140))).comparisons().get(0).verdict());
+        // Clearly different, but under the threshold
+        Assertions.assertEquals(RegressionComparator.Verdict.SAME,
+                comparator.compare(List.of(before), List.of(result("avgt", 108, 107, 109))).comparisons().get(0).verdict());
+    }
+
+    @Test
+    @DisplayName("Throughput Going Down Is Slower")
+    public void throughput() {
+        var before = result("thrpt", 100, 98, 102);
+
+        Assertions.assertEquals(RegressionComparator.Verdict.SLOWER,
+                comparator.compare(List.of(before), List.of(result("thrpt", 70, 68, 72))).comparisons().get(0).verdict());
+        Assertions.assertEquals(RegressionComparator.Verdict.FASTER,
+                comparator.compare(List.of(before), List.of(result("thrpt", 130, 128, 132))).comparisons().get(0).verdict());
+    }
+
+    @Test
+    @DisplayName("New And Missing Benchmarks Pass")
+    public void newAndMissing() {
+        var old = new BenchmarkResult("old", "avgt", "ns/op", 1, 1, 1);
+        var added = new BenchmarkResult("added", "avgt", "ns/op", 1, 1, 1);
+
+        RegressionComparator.Report report = comparator.compare(List.of(old), List.of(added));
+
+        Assertions.assertEquals(List.of(RegressionComparator.Verdict.NEW, RegressionComparator.Verdict.MISSING),
+                report.comparisons().stream().map(RegressionComparator.Comparison::verdict).toList());
+        Assertions.assertTrue(report.passed());
+    }
+
+    @Test
+    @DisplayName("Baselines Are Kept Per Profile")
+    public void baselineStore(@TempDir Path directory) throws Exception {
+        var store = new BaselineStore(directory);
+        List<BenchmarkResult> results = BenchmarkResult.readJmh(new StringReader(JMH_JSON));
+
+        store.save("laptop", results);
+
+        Assertions.assertEquals(results, store.load("laptop").orElseThrow().results());
+        Assertions.assertTrue(store.load("server").isEmpty());
+        Assertions.assertTrue(BaselineStore.currentProfile().matches("[a-z0-9.-]+"));
+    }
+
+    private static BenchmarkResult result(String mode, double score, double lower, double upper) {
+        return new BenchmarkResult("benchmarks.GameBenchmark.validMoves", mode, "ns/op", score, lower, upper);
+    }
+}
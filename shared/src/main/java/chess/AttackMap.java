@@ -0,0 +1,159 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Counts how many pieces of each team attack every square of a board.
+ * <p>
+ * A board with attack tracking turned on (see {@link ChessBoard#setAttackTracking(boolean)})
+ * keeps its map up to date on every {@link ChessBoard#addPiece(ChessPosition, ChessPiece)}.
+ * Only the changed square's old and new piece, and the sliding pieces whose lines run
+ * through that square, are recalculated, so reading an attack count never scans the board.
+ * Squares are numbered as in {@link AttackTables}.
+ */
+public class AttackMap {
+
+    private static final int[][] DIRECTIONS = {
+            {1, 0}, {-1, 0}, {0, 1}, {0, -1},
+            {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+
+    private final int[][] counts = new int[2][64];
+
+    AttackMap() {
+    }
+
+    AttackMap(AttackMap other) {
+        for (int color = 0; color < 2; color++) {
+            System.arraycopy(other.counts[color], 0, counts[color], 0, 64);
+        }
+    }
+
+    /**
+     * @return how many pieces of a team attack a square
+     */
+    public int count(ChessGame.TeamColor attacker, int square) {
+        return counts[attacker.ordinal()][square];
+    }
+
+    /**
+     * @return how many pieces of a team attack a position
+     */
+    public int count(ChessGame.TeamColor attacker, ChessPosition position) {
+        return count(attacker, AttackTables.square(position));
+    }
+
+    /**
+     * @return True if at least one piece of a team attacks the square
+     */
+    public boolean isAttacked(int square, ChessGame.TeamColor attacker) {
+        return counts[attacker.ordinal()][square] > 0;
+    }
+
+    /**
+     * Recounts every attack on a board from scratch
+     */
+    void rebuild(ChessBoard board) {
+        for (int[] teamCounts : counts) {
+            Arrays.fill(teamCounts, 0);
+        }
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.pieceAt(square);
+            if (piece != null) {
+                addAttacks(board, piece, square, 1);
+            }
+        }
+    }
+
+    /**
+     * Adjusts the counts for a square about to change from one piece to another.
+     * Must be called before the board itself is changed.
+     */
+    void update(ChessBoard board, int square, ChessPiece oldPiece, ChessPiece newPiece) {
+        if (oldPiece != null) {
+            addAttacks(board, oldPiece, square, -1);
+        }
+        if ((oldPiece == null) != (newPiece == null)) {
+            // Filling a square blocks the lines running through it; emptying one opens them
+            extendLinesThrough(board, square, newPiece == null ? 1 : -1);
+        }
+        if (newPiece != null) {
+            addAttacks(board, newPiece, square, 1);
+        }
+    }
+
+    private void extendLinesThrough(ChessBoard board, int square, int delta) {
+        int row = square / 8 + 1;
+        int col = square % 8 + 1;
+        for (int[] direction : DIRECTIONS) {
+            // Find the first piece on one side of the square...
+            int r = row + direction[0];
+            int c = col + direction[1];
+            ChessPiece slider = null;
+            while (r >= 1 && r <= 8 && c >= 1 && c <= 8) {
+                slider = board.pieceAt(AttackTables.square(r, c));
+                if (slider != null) {
+                    break;
+                }
+                r += direction[0];
+                c += direction[1];
+            }
+            if (slider == null || !slidesAlong(slider.getPieceType(), direction)) {
+                continue;
+            }
+            // ...and if it slides toward the square, its line carries on out the other side
+            addRay(board, slider.getTeamColor(), row, col, -direction[0], -direction[1], delta);
+        }
+    }
+
+    private void addAttacks(ChessBoard board, ChessPiece piece, int square, int delta) {
+        ChessGame.TeamColor color = piece.getTeamColor();
+        int row = square / 8 + 1;
+        int col = square % 8 + 1;
+        switch (piece.getPieceType()) {
+            case PAWN -> addMask(color, AttackTables.pawnAttacks(color, square), delta);
+            case KNIGHT -> addMask(color, AttackTables.knightAttacks(square), delta);
+            case KING -> addMask(color, AttackTables.kingAttacks(square), delta);
+            default -> {
+                for (int[] direction : DIRECTIONS) {
+                    if (slidesAlong(piece.getPieceType(), direction)) {
+                        addRay(board, color, row, col, direction[0], direction[1], delta);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addMask(ChessGame.TeamColor color, long mask, int delta) {
+        int[] teamCounts = counts[color.ordinal()];
+        while (mask != 0) {
+            teamCounts[Long.numberOfTrailingZeros(mask)] += delta;
+            mask &= mask - 1;
+        }
+    }
+
+    /**
+     * Adds delta to each square from next to (row, col) up to and including the first piece
+     */
+    private void addRay(ChessBoard board, ChessGame.TeamColor color, int row, int col,
+                        int rowStep, int colStep, int delta) {
+        int[] teamCounts = counts[color.ordinal()];
+        int r = row + rowStep;
+        int c = col + colStep;
+        while (r >= 1 && r <= 8 && c >= 1 && c <= 8) {
+            int square = AttackTables.square(r, c);
+            teamCounts[square] += delta;
+            if (board.pieceAt(square) != null) {
+                break;
+            }
+            r += rowStep;
+            c += colStep;
+        }
+    }
+
+    private static boolean slidesAlong(ChessPiece.PieceType type, int[] direction) {
+        boolean straight = direction[0] == 0 || direction[1] == 0;
+        return type == ChessPiece.PieceType.QUEEN ||
+                (straight ? type == ChessPiece.PieceType.ROOK : type == ChessPiece.PieceType.BISHOP);
+    }
+}
@@ -0,0 +1,131 @@
+package chess;
+
+/**
+ * Precomputed move geometry for every square on the board.
+ * <p>
+ * Squares are numbered 0 to 63 starting at row 1, column 1, so a square's number is
+ * {@code (row - 1) * 8 + (column - 1)}. Sets of squares are 64-bit masks with bit n set
+ * for square n.
+ */
+public final class AttackTables {
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[] STRAIGHT_LINES = new long[64];
+    private static final long[] DIAGONAL_LINES = new long[64];
+
+    static {
+        int[][] knightOffsets = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+        int[][] kingOffsets = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                int from = square(row, col);
+                KNIGHT[from] = offsetMask(row, col, knightOffsets);
+                KING[from] = offsetMask(row, col, kingOffsets);
+                PAWN[ChessGame.TeamColor.WHITE.ordinal()][from] = offsetMask(row, col, new int[][]{{1, -1}, {1, 1}});
+                PAWN[ChessGame.TeamColor.BLACK.ordinal()][from] = offsetMask(row, col, new int[][]{{-1, -1}, {-1, 1}});
+
+                for (int[] direction : kingOffsets) {
+                    boolean straight = direction[0] == 0 || direction[1] == 0;
+                    long between = 0;
+                    int r = row + direction[0];
+                    int c = col + direction[1];
+                    while (r >= 1 && r <= 8 && c >= 1 && c <= 8) {
+                        int to = square(r, c);
+                        BETWEEN[from][to] = between;
+                        if (straight) {
+                            STRAIGHT_LINES[from] |= bit(to);
+                        } else {
+                            DIAGONAL_LINES[from] |= bit(to);
+                        }
+                        between |= bit(to);
+                        r += direction[0];
+                        c += direction[1];
+                    }
+                }
+            }
+        }
+    }
+
+    private AttackTables() {
+    }
+
+    /**
+     * @return the number of the square at a row and column
+     */
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return the number of the square at a position
+     */
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return a mask with only the given square set
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * @return the squares a knight on the given square attacks
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    /**
+     * @return the squares a king on the given square attacks
+     */
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color on the given square attacks
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    /**
+     * @return true if a rook could move between the two squares on an empty board
+     */
+    public static boolean onStraightLine(int from, int to) {
+        return (STRAIGHT_LINES[from] & bit(to)) != 0;
+    }
+
+    /**
+     * @return true if a bishop could move between the two squares on an empty board
+     */
+    public static boolean onDiagonalLine(int from, int to) {
+        return (DIAGONAL_LINES[from] & bit(to)) != 0;
+    }
+
+    /**
+     * @return the squares strictly between two squares on the same line, or 0 if they
+     * are not on a line
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    private static long offsetMask(int row, int col, int[][] offsets) {
+        long mask = 0;
+        for (int[] offset : offsets) {
+            int r = row + offset[0];
+            int c = col + offset[1];
+            if (r >= 1 && r <= 8 && c >= 1 && c <= 8) {
+                mask |= bit(square(r, c));
+            }
+        }
+        return mask;
+    }
+}
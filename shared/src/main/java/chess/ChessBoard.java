@@ -1,5 +1,7 @@
 package chess;
 
+import java.util.Arrays;
+
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
@@ -9,12 +11,36 @@ package chess;
 public class ChessBoard {
 
     private ChessPiece[][] board;
+    private transient long zobristKey; // XOR of Zobrist.pieceKey for every piece on the board
+    private transient long occupancy;  // bit AttackTables.square(position) is set for every occupied square
+    private transient boolean cached;  // whether the two above are known; not after deserializing
+    private transient int[] kingSquares = {-1, -1}; // per team, or -1 if unknown
+    private transient AttackMap attackMap; // null unless attack tracking is on
 
     public ChessBoard() {
         // Initialize board array
         board = new ChessPiece[8][8];
     }
 
+    /**
+     * Creates a copy of another chessboard. Pieces are shared, since a piece
+     * never changes once it is created.
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        board = new ChessPiece[8][8];
+        for (int row = 0; row < 8; row++) {
+            System.arraycopy(other.board[row], 0, board[row], 0, 8);
+        }
+        other.ensureCached();
+        zobristKey = other.zobristKey;
+        occupancy = other.occupancy;
+        cached = true;
+        kingSquares = other.kingSquares.clone();
+        attackMap = other.attackMap == null ? null : new AttackMap(other.attackMap);
+    }
+
 
     /**
      * Adds a chess piece to the chessboard
@@ -25,6 +51,17 @@ public class ChessBoard {
     public void addPiece(ChessPosition position, ChessPiece piece) {
         int row = 8 - position.getRow();
         int col = position.getColumn() - 1;
+        int square = AttackTables.square(position);
+        ChessPiece oldPiece = board[row][col];
+        ensureCached();
+        zobristKey ^= Zobrist.pieceKey(oldPiece, position.getRow(), position.getColumn()) ^
+                Zobrist.pieceKey(piece, position.getRow(), position.getColumn());
+        long bit = AttackTables.bit(square);
+        occupancy = piece == null ? occupancy & ~bit : occupancy | bit;
+        if (attackMap != null) {
+            attackMap.update(this, square, oldPiece, piece);
+        }
+        trackKing(square, oldPiece, piece);
         board[row][col] = piece;
         //throw new RuntimeException("Not implemented");
     }
@@ -100,9 +137,114 @@ public class ChessBoard {
                 board[i][j] = null;
             }
         }
+        zobristKey = Zobrist.boardKey(this);
+        occupancy = 0x000000000000FFFFL | 0xFFFF000000000000L; // rows 1, 2, 7 and 8
+        cached = true;
+        kingSquares = new int[]{AttackTables.square(1, 5), AttackTables.square(8, 5)};
+        if (attackMap != null) {
+            attackMap.rebuild(this);
+        }
         //throw new RuntimeException("Not implemented");
     }
 
+    /**
+     * @return the Zobrist key of the pieces on this board, kept up to date as pieces
+     * are added and removed
+     */
+    public long getZobristKey() {
+        ensureCached();
+        return zobristKey;
+    }
+
+    /**
+     * @return a mask of the occupied squares, numbered as in {@link AttackTables}
+     */
+    public long getOccupancy() {
+        ensureCached();
+        return occupancy;
+    }
+
+    /**
+     * Turns per-square attack counting on or off. While it is on, every change to the
+     * board updates the counts returned by {@link #getAttackMap()}.
+     *
+     * @param enabled whether to keep an attack map
+     */
+    public void setAttackTracking(boolean enabled) {
+        if (!enabled) {
+            attackMap = null;
+        } else if (attackMap == null) {
+            attackMap = new AttackMap();
+            attackMap.rebuild(this);
+        }
+    }
+
+    /**
+     * @return the board's attack map, or null if attack tracking is off
+     */
+    public AttackMap getAttackMap() {
+        return attackMap;
+    }
+
+    /**
+     * @return where a team's king is, or null if the team has no king
+     */
+    public ChessPosition findKing(ChessGame.TeamColor color) {
+        int square = kingSquare(color);
+        return square < 0 ? null : new ChessPosition(square / 8 + 1, square % 8 + 1);
+    }
+
+    /**
+     * @return the square a team's king is on, numbered as in {@link AttackTables}, or -1
+     * if the team has no king
+     */
+    int kingSquare(ChessGame.TeamColor color) {
+        int square = kingSquares[color.ordinal()];
+        if (square >= 0) {
+            return square;
+        }
+        // Not tracked (the board was deserialized, or one of two kings was removed), so look for it
+        for (square = 0; square < 64; square++) {
+            ChessPiece piece = pieceAt(square);
+            if (piece != null && piece.getTeamColor() == color && piece.getPieceType() == ChessPiece.PieceType.KING) {
+                return square;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the piece on a square numbered as in {@link AttackTables}, or null
+     */
+    ChessPiece pieceAt(int square) {
+        return board[7 - square / 8][square % 8];
+    }
+
+    private void ensureCached() {
+        if (cached) {
+            return;
+        }
+        // The pieces came from somewhere other than addPiece and resetBoard, such as Gson
+        zobristKey = Zobrist.boardKey(this);
+        occupancy = 0;
+        for (int square = 0; square < 64; square++) {
+            if (pieceAt(square) != null) {
+                occupancy |= AttackTables.bit(square);
+            }
+        }
+        cached = true;
+    }
+
+    private void trackKing(int square, ChessPiece oldPiece, ChessPiece newPiece) {
+        if (oldPiece != null && oldPiece.getPieceType() == ChessPiece.PieceType.KING &&
+                kingSquares[oldPiece.getTeamColor().ordinal()] == square) {
+            kingSquares[oldPiece.getTeamColor().ordinal()] = -1;
+        }
+        if (newPiece != null && newPiece.getPieceType() == ChessPiece.PieceType.KING) {
+            kingSquares[newPiece.getTeamColor().ordinal()] = square;
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder boardString = new StringBuilder();
@@ -138,4 +280,13 @@ public class ChessBoard {
         }
         return true; // If all pieces match, the boards are equal
     }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (ChessPiece[] row : board) {
+            result = 31 * result + Arrays.hashCode(row);
+        }
+        return result;
+    }
 }
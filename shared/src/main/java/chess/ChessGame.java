@@ -1,6 +1,10 @@
 package chess;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -10,15 +14,70 @@ import java.util.Collection;
  */
 public class ChessGame {
 
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+    static final int ALL_CASTLING = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+
+    private static final int[][] STRAIGHT_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] DIAGONAL_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private ChessBoard board;
+    private TeamColor teamTurn;
+    private int castlingRights;
+    private ChessPosition enPassantTarget; // square a pawn skipped over on the last move, or null
+    private int plyCount;      // moves made by both teams since the start of the game
+    private int halfmoveClock; // moves since the last capture or pawn move
+
+    private transient ArrayDeque<MoveUndo> history; // moves made by doMove, for undoMove
+    private transient PositionInterner interner;
+    private transient PositionInterner.SharedPosition shared; // set while board is the interner's copy
+    private transient boolean attackTracking; // shared boards never track, so unshare turns it back on
+
     public ChessGame() {
+        board = new ChessBoard();
+        board.resetBoard();
+        teamTurn = TeamColor.WHITE;
+        castlingRights = ALL_CASTLING;
+    }
+
+    /**
+     * Creates an independent copy of another game, including a copy of its board
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        board = other.shared != null ? other.board : new ChessBoard(other.board);
+        teamTurn = other.teamTurn;
+        castlingRights = other.castlingRights;
+        enPassantTarget = other.enPassantTarget;
+        plyCount = other.plyCount;
+        halfmoveClock = other.halfmoveClock;
+        interner = other.interner;
+        shared = other.shared;
+        attackTracking = other.attackTracking;
+    }
 
+    ChessGame(ChessBoard board, TeamColor teamTurn, int castlingRights, ChessPosition enPassantTarget) {
+        this(board, teamTurn, castlingRights, enPassantTarget, 0, 0);
+    }
+
+    ChessGame(ChessBoard board, TeamColor teamTurn, int castlingRights, ChessPosition enPassantTarget,
+              int halfmoveClock, int plyCount) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+        this.castlingRights = castlingRights;
+        this.enPassantTarget = enPassantTarget;
+        this.halfmoveClock = halfmoveClock;
+        this.plyCount = plyCount;
     }
 
     /**
      * @return Which team's turn it is
      */
     public TeamColor getTeamTurn() {
-        throw new RuntimeException("Not implemented");
+        return teamTurn;
     }
 
     /**
@@ -27,7 +86,8 @@ public class ChessGame {
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
-        throw new RuntimeException("Not implemented");
+        unshare();
+        teamTurn = team;
     }
 
     /**
@@ -35,7 +95,11 @@ public class ChessGame {
      */
     public enum TeamColor {
         WHITE,
-        BLACK
+        BLACK;
+
+        public TeamColor opponent() {
+            return this == WHITE ? BLACK : WHITE;
+        }
     }
 
     /**
@@ -46,7 +110,16 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        throw new RuntimeException("Not implemented");
+        return legalMovesFrom(startPosition);
+    }
+
+    /**
+     * Gets every valid move for the team whose turn it is
+     *
+     * @return the valid moves of all of the team's pieces
+     */
+    public Collection<ChessMove> allValidMoves() {
+        return legalMoves();
     }
 
     /**
@@ -56,7 +129,36 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        throw new RuntimeException("Not implemented");
+        ChessPiece piece = board.getPiece(move.getStartPosition());
+        if (piece == null) {
+            throw new InvalidMoveException("No piece at " + move.getStartPosition());
+        }
+        if (piece.getTeamColor() != teamTurn) {
+            throw new InvalidMoveException("It is not " + piece.getTeamColor() + "'s turn");
+        }
+        if (!legal(move)) {
+            throw new InvalidMoveException("Illegal move");
+        }
+        unshare();
+        applyMove(move);
+        teamTurn = teamTurn.opponent();
+        plyCount++;
+        shareIfPossible();
+    }
+
+    /**
+     * Determines if a single move is legal for the team whose turn it is, without
+     * generating any other moves.
+     * <p>
+     * The move's shape is checked against {@link AttackTables}, the squares it passes
+     * over must be empty, and then the move is tried on the board to make sure it does
+     * not leave the mover's king in check.
+     *
+     * @param move the move to test
+     * @return True if {@link #makeMove(ChessMove)} would accept the move
+     */
+    public boolean isLegal(ChessMove move) {
+        return legal(move);
     }
 
     /**
@@ -66,7 +168,7 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return kingInCheck(teamColor);
     }
 
     /**
@@ -76,7 +178,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return kingInCheck(teamColor) && !hasValidMove(teamColor);
     }
 
     /**
@@ -87,16 +189,25 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return !kingInCheck(teamColor) && !hasValidMove(teamColor);
     }
 
     /**
      * Sets this game's chessboard with a given board
+     * <p>
+     * Castling rights are inferred from the board: a side may castle toward any
+     * rook that still stands on its home square next to a king on its home square.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
-        throw new RuntimeException("Not implemented");
+        this.shared = null;
+        this.board = board;
+        if (attackTracking) {
+            board.setAttackTracking(true);
+        }
+        this.castlingRights = inferCastlingRights(board);
+        this.enPassantTarget = null;
     }
 
     /**
@@ -105,6 +216,537 @@ public class ChessGame {
      * @return the chessboard
      */
     public ChessBoard getBoard() {
-        throw new RuntimeException("Not implemented");
+        // The caller may change the board, so it can't be the shared copy
+        unshare();
+        return board;
+    }
+
+    /**
+     * @return the current board without copying it out of a position interner. Callers
+     * must not change it.
+     */
+    ChessBoard currentBoard() {
+        return board;
+    }
+
+    /**
+     * @return the Zobrist key of the current position
+     */
+    public long getZobristKey() {
+        return zobristKey();
+    }
+
+    /**
+     * Counts the positions reachable from this one in exactly {@code depth} moves
+     * (a perft count). The game itself is left unchanged.
+     *
+     * @param depth how many moves ahead to look
+     * @return the number of move sequences of that length
+     */
+    public long perft(int depth) {
+        return Perft.perft(this, depth);
+    }
+
+    /**
+     * Splits a perft count by the first move made
+     *
+     * @param depth how many moves ahead to look
+     * @return each valid move with the perft count below it, in generation order
+     */
+    public Map<ChessMove, Long> divide(int depth) {
+        return Perft.divide(this, depth);
+    }
+
+    /**
+     * Turns attack counting on or off for this game's board. With it on, check
+     * detection reads the board's {@link AttackMap} instead of searching for attackers,
+     * and the map is kept current as moves are made and taken back. The setting belongs
+     * to the game, so it carries over to boards set later and to boards copied back out
+     * of a position interner.
+     *
+     * @param enabled whether to keep an attack map
+     */
+    public void setAttackTracking(boolean enabled) {
+        unshare();
+        attackTracking = enabled;
+        board.setAttackTracking(enabled);
+    }
+
+    /**
+     * Shares this game's opening positions with other games attached to the same interner.
+     *
+     * @param interner the interner to use, or null to stop sharing
+     */
+    public void setPositionInterner(PositionInterner interner) {
+        unshare();
+        this.interner = interner;
+        shareIfPossible();
+    }
+
+    /**
+     * Determines if any piece of the given team attacks a square
+     *
+     * @param position the square to test
+     * @param attacker the team that might be attacking it
+     * @return True if a piece of the attacking team could capture on that square
+     */
+    public boolean isSquareAttacked(ChessPosition position, TeamColor attacker) {
+        return squareAttacked(AttackTables.square(position), attacker);
+    }
+
+    /**
+     * @return the castling rights still held, as bits: 1 white kingside, 2 white
+     * queenside, 4 black kingside, 8 black queenside
+     */
+    public int castlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return the square a pawn skipped over on the last move, or null
+     */
+    public ChessPosition enPassantTarget() {
+        return enPassantTarget;
+    }
+
+    /**
+     * @return moves since the last capture or pawn move
+     */
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return moves made by both teams since the start of the game
+     */
+    public int plyCount() {
+        return plyCount;
+    }
+
+    /**
+     * @return a copy of this game with its own board and no interner, for searches
+     * that change the game and put it back
+     */
+    ChessGame detachedCopy() {
+        return new ChessGame(new ChessBoard(board), teamTurn, castlingRights, enPassantTarget,
+                halfmoveClock, plyCount);
+    }
+
+    /**
+     * Makes a move without checking it, remembering how to take it back with
+     * {@link #undoMove()}. The move must be one of {@link #allValidMoves()}.
+     */
+    void doMove(ChessMove move) {
+        unshare();
+        if (history == null) {
+            history = new ArrayDeque<>();
+        }
+        history.push(applyMove(move));
+        teamTurn = teamTurn.opponent();
+        plyCount++;
+    }
+
+    /**
+     * Takes back the last move made by {@link #doMove(ChessMove)}
+     */
+    void undoMove() {
+        revertMove(history.pop());
+        teamTurn = teamTurn.opponent();
+        plyCount--;
+    }
+
+    /*
+     * The public methods above can be overridden (see ConcurrentChessGame), so everything
+     * inside the class goes through these private versions instead.
+     */
+
+    private long zobristKey() {
+        return board.getZobristKey() ^ Zobrist.stateKey(teamTurn, castlingRights, enPassantTarget);
+    }
+
+    private Collection<ChessMove> legalMovesFrom(ChessPosition startPosition) {
+        if (shared != null) {
+            return shared.legalMovesFrom(startPosition);
+        }
+        ChessPiece piece = board.getPiece(startPosition);
+        if (piece == null) {
+            return null;
+        }
+
+        Collection<ChessMove> candidates = piece.pieceMoves(board, startPosition);
+        addCastlingMoves(candidates, piece, startPosition);
+        addEnPassantMoves(candidates, piece, startPosition);
+
+        Collection<ChessMove> validMoves = new ArrayList<>(candidates.size());
+        for (ChessMove move : candidates) {
+            if (!leavesKingInCheck(move, piece.getTeamColor())) {
+                validMoves.add(move);
+            }
+        }
+        return validMoves;
+    }
+
+    private boolean legal(ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        ChessPiece piece = board.getPiece(start);
+        if (piece == null || piece.getTeamColor() != teamTurn || start.equals(end)) {
+            return false;
+        }
+        if (shared != null) {
+            // The shared board can't be used to try the move out, but its moves are cached
+            return shared.legalMovesFrom(start).contains(move);
+        }
+        ChessPiece target = board.getPiece(end);
+        if (target != null && target.getTeamColor() == piece.getTeamColor()) {
+            return false;
+        }
+
+        int from = AttackTables.square(start);
+        int to = AttackTables.square(end);
+        boolean promotes = piece.getPieceType() == ChessPiece.PieceType.PAWN &&
+                end.getRow() == (piece.getTeamColor() == TeamColor.WHITE ? 8 : 1);
+        ChessPiece.PieceType promotion = move.getPromotionPiece();
+        if (promotes != (promotion != null) ||
+                promotion == ChessPiece.PieceType.KING || promotion == ChessPiece.PieceType.PAWN) {
+            return false;
+        }
+
+        boolean shapeOk = switch (piece.getPieceType()) {
+            case KNIGHT -> (AttackTables.knightAttacks(from) & AttackTables.bit(to)) != 0;
+            case KING -> (AttackTables.kingAttacks(from) & AttackTables.bit(to)) != 0 || isCastlingMove(piece, start, end);
+            case ROOK -> AttackTables.onStraightLine(from, to) && pathClear(from, to);
+            case BISHOP -> AttackTables.onDiagonalLine(from, to) && pathClear(from, to);
+            case QUEEN -> (AttackTables.onStraightLine(from, to) || AttackTables.onDiagonalLine(from, to)) &&
+                    pathClear(from, to);
+            case PAWN -> isPawnMove(piece, start, end, target, from, to);
+        };
+        return shapeOk && !leavesKingInCheck(move, piece.getTeamColor());
+    }
+
+    private boolean pathClear(int from, int to) {
+        return (AttackTables.between(from, to) & board.getOccupancy()) == 0;
+    }
+
+    private boolean isPawnMove(ChessPiece pawn, ChessPosition start, ChessPosition end, ChessPiece target,
+                               int from, int to) {
+        int direction = pawn.getTeamColor() == TeamColor.WHITE ? 1 : -1;
+        int rows = end.getRow() - start.getRow();
+        if (start.getColumn() == end.getColumn()) {
+            if (target != null) {
+                return false;
+            }
+            if (rows == direction) {
+                return true;
+            }
+            int startingRow = pawn.getTeamColor() == TeamColor.WHITE ? 2 : 7;
+            return rows == 2 * direction && start.getRow() == startingRow && pathClear(from, to);
+        }
+        if ((AttackTables.pawnAttacks(pawn.getTeamColor(), from) & AttackTables.bit(to)) == 0) {
+            return false;
+        }
+        if (target != null) {
+            return true;
+        }
+        if (!end.equals(enPassantTarget)) {
+            return false;
+        }
+        ChessPiece victim = board.getPiece(new ChessPosition(start.getRow(), end.getColumn()));
+        return victim != null && victim.getTeamColor() != pawn.getTeamColor() &&
+                victim.getPieceType() == ChessPiece.PieceType.PAWN;
+    }
+
+    private boolean isCastlingMove(ChessPiece king, ChessPosition start, ChessPosition end) {
+        TeamColor color = king.getTeamColor();
+        int homeRow = color == TeamColor.WHITE ? 1 : 8;
+        if (start.getRow() != homeRow || start.getColumn() != 5 || end.getRow() != homeRow) {
+            return false;
+        }
+        int right;
+        if (end.getColumn() == 7) {
+            right = color == TeamColor.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        } else if (end.getColumn() == 3) {
+            right = color == TeamColor.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        } else {
+            return false;
+        }
+        return (castlingRights & right) != 0 && !kingInCheck(color) &&
+                canCastleToward(color, homeRow, end.getColumn() == 7 ? 8 : 1);
+    }
+
+    private Collection<ChessMove> legalMoves() {
+        Collection<ChessMove> moves = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.pieceAt(AttackTables.square(row, col));
+                if (piece != null && piece.getTeamColor() == teamTurn) {
+                    moves.addAll(legalMovesFrom(new ChessPosition(row, col)));
+                }
+            }
+        }
+        return moves;
+    }
+
+    private boolean kingInCheck(TeamColor teamColor) {
+        int kingSquare = board.kingSquare(teamColor);
+        return kingSquare >= 0 && squareAttacked(kingSquare, teamColor.opponent());
+    }
+
+    private boolean squareAttacked(int square, TeamColor attacker) {
+        AttackMap attackMap = board.getAttackMap();
+        if (attackMap != null) {
+            return attackMap.isAttacked(square, attacker);
+        }
+
+        // A pawn attacks the square if a defending pawn there would attack the pawn
+        if (anyPieceOn(AttackTables.pawnAttacks(attacker.opponent(), square), attacker, ChessPiece.PieceType.PAWN) ||
+                anyPieceOn(AttackTables.knightAttacks(square), attacker, ChessPiece.PieceType.KNIGHT) ||
+                anyPieceOn(AttackTables.kingAttacks(square), attacker, ChessPiece.PieceType.KING)) {
+            return true;
+        }
+        int row = square / 8 + 1;
+        int col = square % 8 + 1;
+        return isAttackedAlongRays(row, col, attacker, STRAIGHT_DIRECTIONS, ChessPiece.PieceType.ROOK) ||
+                isAttackedAlongRays(row, col, attacker, DIAGONAL_DIRECTIONS, ChessPiece.PieceType.BISHOP);
+    }
+
+    private boolean isAttackedAlongRays(int row, int col, TeamColor attacker, int[][] directions,
+                                        ChessPiece.PieceType sliderType) {
+        for (int[] direction : directions) {
+            int r = row + direction[0];
+            int c = col + direction[1];
+            while (r >= 1 && r <= 8 && c >= 1 && c <= 8) {
+                ChessPiece piece = board.pieceAt(AttackTables.square(r, c));
+                if (piece != null) {
+                    if (piece.getTeamColor() == attacker &&
+                            (piece.getPieceType() == sliderType || piece.getPieceType() == ChessPiece.PieceType.QUEEN)) {
+                        return true;
+                    }
+                    break;
+                }
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return false;
+    }
+
+    private boolean anyPieceOn(long squares, TeamColor color, ChessPiece.PieceType type) {
+        squares &= board.getOccupancy();
+        while (squares != 0) {
+            ChessPiece piece = board.pieceAt(Long.numberOfTrailingZeros(squares));
+            if (piece.getTeamColor() == color && piece.getPieceType() == type) {
+                return true;
+            }
+            squares &= squares - 1;
+        }
+        return false;
+    }
+
+    private boolean hasValidMove(TeamColor teamColor) {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(position);
+                if (piece != null && piece.getTeamColor() == teamColor && !legalMovesFrom(position).isEmpty()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean leavesKingInCheck(ChessMove move, TeamColor teamColor) {
+        MoveUndo undo = applyMove(move);
+        boolean inCheck = kingInCheck(teamColor);
+        revertMove(undo);
+        return inCheck;
+    }
+
+    private void addCastlingMoves(Collection<ChessMove> moves, ChessPiece king, ChessPosition kingPosition) {
+        if (king.getPieceType() != ChessPiece.PieceType.KING) {
+            return;
+        }
+        TeamColor color = king.getTeamColor();
+        int homeRow = color == TeamColor.WHITE ? 1 : 8;
+        if (kingPosition.getRow() != homeRow || kingPosition.getColumn() != 5) {
+            return;
+        }
+        int kingSide = color == TeamColor.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queenSide = color == TeamColor.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        if ((castlingRights & (kingSide | queenSide)) == 0 || kingInCheck(color)) {
+            return;
+        }
+
+        if ((castlingRights & kingSide) != 0 && canCastleToward(color, homeRow, 8)) {
+            moves.add(new ChessMove(kingPosition, new ChessPosition(homeRow, 7), null));
+        }
+        if ((castlingRights & queenSide) != 0 && canCastleToward(color, homeRow, 1)) {
+            moves.add(new ChessMove(kingPosition, new ChessPosition(homeRow, 3), null));
+        }
+    }
+
+    private boolean canCastleToward(TeamColor color, int homeRow, int rookCol) {
+        ChessPiece rook = board.getPiece(new ChessPosition(homeRow, rookCol));
+        if (rook == null || rook.getTeamColor() != color || rook.getPieceType() != ChessPiece.PieceType.ROOK) {
+            return false;
+        }
+        int step = rookCol > 5 ? 1 : -1;
+        for (int col = 5 + step; col != rookCol; col += step) {
+            if (board.getPiece(new ChessPosition(homeRow, col)) != null) {
+                return false;
+            }
+        }
+        // The square the king passes over must be safe; the landing square is checked like any other move
+        return !squareAttacked(AttackTables.square(homeRow, 5 + step), color.opponent());
+    }
+
+    private void addEnPassantMoves(Collection<ChessMove> moves, ChessPiece pawn, ChessPosition pawnPosition) {
+        if (enPassantTarget == null || pawn.getPieceType() != ChessPiece.PieceType.PAWN) {
+            return;
+        }
+        int direction = pawn.getTeamColor() == TeamColor.WHITE ? 1 : -1;
+        if (pawnPosition.getRow() + direction == enPassantTarget.getRow() &&
+                Math.abs(pawnPosition.getColumn() - enPassantTarget.getColumn()) == 1) {
+            ChessPiece victim = board.getPiece(new ChessPosition(pawnPosition.getRow(), enPassantTarget.getColumn()));
+            if (victim != null && victim.getTeamColor() != pawn.getTeamColor() &&
+                    victim.getPieceType() == ChessPiece.PieceType.PAWN) {
+                moves.add(new ChessMove(pawnPosition, enPassantTarget, null));
+            }
+        }
+    }
+
+    /**
+     * Moves the pieces for a move without checking it and updates castling and
+     * en passant state. Does not change whose turn it is.
+     */
+    private MoveUndo applyMove(ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        ChessPiece piece = board.getPiece(start);
+        ChessPiece.PieceType type = piece.getPieceType();
+
+        ChessPosition capturePosition = end;
+        if (type == ChessPiece.PieceType.PAWN && end.equals(enPassantTarget) && board.getPiece(end) == null) {
+            capturePosition = new ChessPosition(start.getRow(), end.getColumn());
+        }
+        ChessPiece captured = board.getPiece(capturePosition);
+        MoveUndo undo = new MoveUndo(move, piece, captured, capturePosition, castlingRights, enPassantTarget,
+                halfmoveClock);
+
+        board.addPiece(capturePosition, null);
+        board.addPiece(start, null);
+        board.addPiece(end, move.getPromotionPiece() == null ? piece :
+                new ChessPiece(piece.getTeamColor(), move.getPromotionPiece()));
+
+        if (type == ChessPiece.PieceType.KING && Math.abs(end.getColumn() - start.getColumn()) == 2) {
+            int rookFrom = end.getColumn() > start.getColumn() ? 8 : 1;
+            int rookTo = end.getColumn() > start.getColumn() ? 6 : 4;
+            ChessPosition rookStart = new ChessPosition(start.getRow(), rookFrom);
+            board.addPiece(new ChessPosition(start.getRow(), rookTo), board.getPiece(rookStart));
+            board.addPiece(rookStart, null);
+        }
+
+        castlingRights &= ~(castlingMask(start) | castlingMask(end));
+        halfmoveClock = type == ChessPiece.PieceType.PAWN || captured != null ? 0 : halfmoveClock + 1;
+        enPassantTarget = null;
+        if (type == ChessPiece.PieceType.PAWN && Math.abs(end.getRow() - start.getRow()) == 2) {
+            enPassantTarget = new ChessPosition((start.getRow() + end.getRow()) / 2, start.getColumn());
+        }
+        return undo;
+    }
+
+    private void revertMove(MoveUndo undo) {
+        ChessPosition start = undo.move().getStartPosition();
+        ChessPosition end = undo.move().getEndPosition();
+
+        if (undo.piece().getPieceType() == ChessPiece.PieceType.KING &&
+                Math.abs(end.getColumn() - start.getColumn()) == 2) {
+            int rookFrom = end.getColumn() > start.getColumn() ? 8 : 1;
+            int rookTo = end.getColumn() > start.getColumn() ? 6 : 4;
+            ChessPosition rookEnd = new ChessPosition(start.getRow(), rookTo);
+            board.addPiece(new ChessPosition(start.getRow(), rookFrom), board.getPiece(rookEnd));
+            board.addPiece(rookEnd, null);
+        }
+
+        board.addPiece(end, null);
+        board.addPiece(undo.capturePosition(), undo.captured());
+        board.addPiece(start, undo.piece());
+        castlingRights = undo.castlingRights();
+        enPassantTarget = undo.enPassantTarget();
+        halfmoveClock = undo.halfmoveClock();
+    }
+
+    private void shareIfPossible() {
+        if (interner == null || shared != null) {
+            return;
+        }
+        PositionInterner.SharedPosition position =
+                interner.intern(zobristKey(), board, teamTurn, castlingRights, enPassantTarget, plyCount);
+        if (position != null) {
+            board = position.board();
+            shared = position;
+        }
+    }
+
+    private void unshare() {
+        if (shared != null) {
+            board = new ChessBoard(board);
+            board.setAttackTracking(attackTracking);
+            shared = null;
+        }
+    }
+
+    private static int castlingMask(ChessPosition position) {
+        int row = position.getRow();
+        int col = position.getColumn();
+        if (row == 1) {
+            return col == 5 ? WHITE_KINGSIDE | WHITE_QUEENSIDE : col == 8 ? WHITE_KINGSIDE : col == 1 ? WHITE_QUEENSIDE : 0;
+        }
+        if (row == 8) {
+            return col == 5 ? BLACK_KINGSIDE | BLACK_QUEENSIDE : col == 8 ? BLACK_KINGSIDE : col == 1 ? BLACK_QUEENSIDE : 0;
+        }
+        return 0;
+    }
+
+    static int inferCastlingRights(ChessBoard board) {
+        int rights = 0;
+        if (isHome(board, 1, 5, TeamColor.WHITE, ChessPiece.PieceType.KING)) {
+            if (isHome(board, 1, 8, TeamColor.WHITE, ChessPiece.PieceType.ROOK)) rights |= WHITE_KINGSIDE;
+            if (isHome(board, 1, 1, TeamColor.WHITE, ChessPiece.PieceType.ROOK)) rights |= WHITE_QUEENSIDE;
+        }
+        if (isHome(board, 8, 5, TeamColor.BLACK, ChessPiece.PieceType.KING)) {
+            if (isHome(board, 8, 8, TeamColor.BLACK, ChessPiece.PieceType.ROOK)) rights |= BLACK_KINGSIDE;
+            if (isHome(board, 8, 1, TeamColor.BLACK, ChessPiece.PieceType.ROOK)) rights |= BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    private static boolean isHome(ChessBoard board, int row, int col, TeamColor color, ChessPiece.PieceType type) {
+        ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+        return piece != null && piece.getTeamColor() == color && piece.getPieceType() == type;
+    }
+
+    /**
+     * Everything needed to take back a move made by applyMove
+     */
+    private record MoveUndo(ChessMove move, ChessPiece piece, ChessPiece captured, ChessPosition capturePosition,
+                            int castlingRights, ChessPosition enPassantTarget, int halfmoveClock) {
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ChessGame that = (ChessGame) o;
+        return castlingRights == that.castlingRights &&
+                teamTurn == that.teamTurn &&
+                Objects.equals(board, that.board) &&
+                Objects.equals(enPassantTarget, that.enPassantTarget);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(board, teamTurn, castlingRights, enPassantTarget);
     }
 }
@@ -61,4 +61,23 @@ public class ChessMove {
     public int hashCode() {
         return Objects.hash(startPosition, endPosition, promotionPiece);
     }
+
+    /**
+     * @return the move in long algebraic (UCI) notation, such as "e2e4" or "e7e8q"
+     */
+    @Override
+    public String toString() {
+        String move = startPosition.toString() + endPosition;
+        if (promotionPiece == null) {
+            return move;
+        }
+        return move + switch (promotionPiece) {
+            case QUEEN -> "q";
+            case ROOK -> "r";
+            case BISHOP -> "b";
+            case KNIGHT -> "n";
+            case KING -> "k";
+            case PAWN -> "p";
+        };
+    }
 }
@@ -8,8 +8,8 @@ package chess;
  */
 public class ChessPosition {
 
-    private int row;
-    private int col;
+    private final int row;
+    private final int col;
 
     public ChessPosition(int row, int col) {
         if (row < 1 || row > 8 || col < 1 || col > 8) {
@@ -50,4 +50,12 @@ public class ChessPosition {
     public int hashCode() {
         return 31 * row + col;
     }
+
+    /**
+     * @return the position in algebraic notation, such as "e4"
+     */
+    @Override
+    public String toString() {
+        return "" + (char) ('a' + col - 1) + row;
+    }
 }
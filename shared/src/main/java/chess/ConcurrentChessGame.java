@@ -0,0 +1,211 @@
+package chess;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * A chess game that can be read and played from several threads at once.
+ * <p>
+ * Reads run under an optimistic {@link StampedLock} stamp, so observers never block
+ * each other or a writer. A read is only repeated, this time under a real read lock,
+ * when a move was made while it was running. Moves and other changes take the
+ * exclusive write stamp.
+ * <p>
+ * Because the board is shared, {@link #getBoard()} returns a snapshot copy rather than
+ * the live board. Changes to it do not affect the game.
+ */
+public class ConcurrentChessGame extends ChessGame {
+
+    private final transient StampedLock lock = new StampedLock();
+
+    public ConcurrentChessGame() {
+        super();
+    }
+
+    /**
+     * Creates a thread-safe game that starts from a copy of another game
+     *
+     * @param game the game to copy
+     */
+    public ConcurrentChessGame(ChessGame game) {
+        super(game);
+    }
+
+    @Override
+    public TeamColor getTeamTurn() {
+        return read(super::getTeamTurn);
+    }
+
+    @Override
+    public void setTeamTurn(TeamColor team) {
+        long stamp = lock.writeLock();
+        try {
+            super.setTeamTurn(team);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets the valid moves for a piece. Legality is tested by trying moves out on a
+     * board, so this works on a private snapshot of the game instead of the shared one.
+     */
+    @Override
+    public Collection<ChessMove> validMoves(ChessPosition startPosition) {
+        return snapshot().validMoves(startPosition);
+    }
+
+    @Override
+    public Collection<ChessMove> allValidMoves() {
+        return snapshot().allValidMoves();
+    }
+
+    /**
+     * Tests a move the same way {@link ChessGame#isLegal(ChessMove)} does, by trying it
+     * out, so this also works on a private snapshot.
+     */
+    @Override
+    public boolean isLegal(ChessMove move) {
+        return snapshot().isLegal(move);
+    }
+
+    @Override
+    public void makeMove(ChessMove move) throws InvalidMoveException {
+        long stamp = lock.writeLock();
+        try {
+            super.makeMove(move);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean isInCheck(TeamColor teamColor) {
+        return read(() -> super.isInCheck(teamColor));
+    }
+
+    @Override
+    public boolean isInCheckmate(TeamColor teamColor) {
+        return snapshot().isInCheckmate(teamColor);
+    }
+
+    @Override
+    public boolean isInStalemate(TeamColor teamColor) {
+        return snapshot().isInStalemate(teamColor);
+    }
+
+    @Override
+    public boolean isSquareAttacked(ChessPosition position, TeamColor attacker) {
+        return read(() -> super.isSquareAttacked(position, attacker));
+    }
+
+    @Override
+    public void setBoard(ChessBoard board) {
+        long stamp = lock.writeLock();
+        try {
+            super.setBoard(new ChessBoard(board));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public long getZobristKey() {
+        return read(super::getZobristKey);
+    }
+
+    @Override
+    public int castlingRights() {
+        return read(super::castlingRights);
+    }
+
+    @Override
+    public ChessPosition enPassantTarget() {
+        return read(super::enPassantTarget);
+    }
+
+    @Override
+    public int halfmoveClock() {
+        return read(super::halfmoveClock);
+    }
+
+    @Override
+    public int plyCount() {
+        return read(super::plyCount);
+    }
+
+    @Override
+    public long perft(int depth) {
+        return snapshot().perft(depth);
+    }
+
+    @Override
+    public Map<ChessMove, Long> divide(int depth) {
+        return snapshot().divide(depth);
+    }
+
+    @Override
+    public void setAttackTracking(boolean enabled) {
+        long stamp = lock.writeLock();
+        try {
+            super.setAttackTracking(enabled);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void setPositionInterner(PositionInterner interner) {
+        long stamp = lock.writeLock();
+        try {
+            super.setPositionInterner(interner);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return a copy of the current board
+     */
+    @Override
+    public ChessBoard getBoard() {
+        return read(() -> new ChessBoard(currentBoard()));
+    }
+
+    /**
+     * @return a single-threaded copy of the current game state
+     */
+    public ChessGame snapshot() {
+        return read(() -> new ChessGame(this));
+    }
+
+    /**
+     * Runs a read-only action optimistically, falling back to a read lock if a writer
+     * got in while it was running. A torn read can make the action fail as well as
+     * return a wrong answer, so a failure before validation is treated as a retry.
+     */
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
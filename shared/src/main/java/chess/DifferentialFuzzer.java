@@ -0,0 +1,314 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plays random games and checks, at every position, that each move generator under test
+ * lists exactly the same moves as a reference generator.
+ * <p>
+ * Games start from the {@link PerftPosition} positions and pick moves at random. Each
+ * game's moves depend only on the seed and the game's number, so any run can be
+ * repeated exactly. When a generator disagrees with the reference, pieces and castling
+ * and en passant rights are taken away from the position one at a time for as long as
+ * the disagreement remains, which usually leaves a position with only a handful of
+ * pieces.
+ * <p>
+ * Run from the command line with a number of games, and optionally a number of threads
+ * and a seed:
+ * <pre>java chess.DifferentialFuzzer 10000 8</pre>
+ */
+public class DifferentialFuzzer {
+
+    /**
+     * A position where a generator and the reference disagree
+     *
+     * @param generator  the name of the generator
+     * @param fen        the position as it came up in a game
+     * @param minimalFen the smallest position found with the same kind of disagreement
+     * @param missing    moves only the reference listed in the original position
+     * @param extra      moves only the generator listed in the original position
+     * @param error      what the generator threw instead of returning, or null
+     */
+    public record Mismatch(String generator, String fen, String minimalFen, Set<ChessMove> missing,
+                           Set<ChessMove> extra, String error) {
+    }
+
+    /**
+     * The outcome of a fuzzing run
+     *
+     * @param games       how many games were played
+     * @param positions   how many positions were checked
+     * @param nanoseconds how long the run took
+     * @param mismatches  every disagreement found; the run stops soon after the first
+     */
+    public record Result(long games, long positions, long nanoseconds, List<Mismatch> mismatches) {
+        public long positionsPerSecond() {
+            return nanoseconds == 0 ? 0 : positions * 1_000_000_000L / nanoseconds;
+        }
+    }
+
+    private static final Comparator<ChessMove> MOVE_ORDER = Comparator.comparing(ChessMove::toString);
+
+    private final MoveGenerator reference;
+    private final Map<String, MoveGenerator> generators;
+    private final int maxPlies;
+
+    /**
+     * Checks ChessGame's own move generation against the {@link ReferenceMoveGenerator},
+     * in games of up to 200 plies
+     */
+    public DifferentialFuzzer() {
+        this(new ReferenceMoveGenerator(), builtInGenerators(), 200);
+    }
+
+    /**
+     * @param reference  the generator taken to be right
+     * @param generators the generators to check, by name
+     * @param maxPlies   games are stopped after this many moves
+     */
+    public DifferentialFuzzer(MoveGenerator reference, Map<String, MoveGenerator> generators, int maxPlies) {
+        if (maxPlies < 1) {
+            throw new IllegalArgumentException("maxPlies must be at least 1");
+        }
+        this.reference = reference;
+        this.generators = new LinkedHashMap<>(generators);
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * @return the generators ChessGame offers, by name
+     */
+    public static Map<String, MoveGenerator> builtInGenerators() {
+        Map<String, MoveGenerator> generators = new LinkedHashMap<>();
+        generators.put("validMoves", MoveGenerator.VALID_MOVES);
+        generators.put("attackTracking", MoveGenerator.ATTACK_TRACKING);
+        generators.put("isLegal", MoveGenerator.IS_LEGAL);
+        return generators;
+    }
+
+    /**
+     * Plays games on several threads until the given number have been played or a
+     * mismatch is found
+     *
+     * @param games   how many games to play
+     * @param threads how many threads to play them on
+     * @param seed    where the random moves start from
+     * @return what was checked and what went wrong
+     */
+    public Result run(long games, int threads, long seed) {
+        AtomicLong nextGame = new AtomicLong();
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder gamesPlayed = new LongAdder();
+        LongAdder positions = new LongAdder();
+        ConcurrentLinkedQueue<Mismatch> mismatches = new ConcurrentLinkedQueue<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    long game;
+                    while (!stop.get() && (game = nextGame.getAndIncrement()) < games) {
+                        Mismatch mismatch = playGame(seed, game, positions);
+                        gamesPlayed.increment();
+                        if (mismatch != null) {
+                            mismatches.add(mismatch);
+                            stop.set(true);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Fuzzing worker failed", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Result(gamesPlayed.sum(), positions.sum(), System.nanoTime() - start, List.copyOf(mismatches));
+    }
+
+    /**
+     * Checks one position against every generator
+     *
+     * @return the first disagreement, or null if every generator agrees
+     */
+    public Mismatch check(ChessGame game) {
+        return check(game, reference.legalMoves(game.detachedCopy()));
+    }
+
+    /**
+     * Simplifies a position one step at a time for as long as a generator still
+     * disagrees with the reference about it
+     *
+     * @return the simplest position found, as FEN
+     */
+    public String shrink(ChessGame game, MoveGenerator generator) {
+        ChessGame current = game.detachedCopy();
+        boolean simplified = true;
+        while (simplified) {
+            simplified = false;
+            for (ChessGame candidate : simplifications(current)) {
+                if (isPlayable(candidate) && disagrees(generator, candidate)) {
+                    current = candidate;
+                    simplified = true;
+                    break;
+                }
+            }
+        }
+        return Fen.format(current);
+    }
+
+    private Mismatch playGame(long seed, long gameNumber, LongAdder positions) {
+        SplittableRandom random = new SplittableRandom(seed + gameNumber * 0x9E3779B97F4A7C15L);
+        PerftPosition[] starts = PerftPosition.values();
+        ChessGame game = starts[random.nextInt(starts.length)].game();
+
+        for (int ply = 0; ply < maxPlies; ply++) {
+            Set<ChessMove> expected = reference.legalMoves(game.detachedCopy());
+            positions.increment();
+            Mismatch mismatch = check(game, expected);
+            if (mismatch != null) {
+                return mismatch;
+            }
+            if (expected.isEmpty()) {
+                break;
+            }
+            // Sorted so the same seed picks the same moves whatever order the set is in
+            List<ChessMove> moves = new ArrayList<>(expected);
+            moves.sort(MOVE_ORDER);
+            game.doMove(moves.get(random.nextInt(moves.size())));
+        }
+        return null;
+    }
+
+    private Mismatch check(ChessGame game, Set<ChessMove> expected) {
+        for (Map.Entry<String, MoveGenerator> entry : generators.entrySet()) {
+            Mismatch mismatch = compare(entry.getKey(), entry.getValue(), game, expected);
+            if (mismatch != null) {
+                return new Mismatch(mismatch.generator(), mismatch.fen(), shrink(game, entry.getValue()),
+                        mismatch.missing(), mismatch.extra(), mismatch.error());
+            }
+        }
+        return null;
+    }
+
+    private Mismatch compare(String name, MoveGenerator generator, ChessGame game, Set<ChessMove> expected) {
+        Set<ChessMove> actual;
+        try {
+            actual = generator.legalMoves(game.detachedCopy());
+        } catch (RuntimeException e) {
+            return new Mismatch(name, Fen.format(game), null, Set.of(), Set.of(), e.toString());
+        }
+        if (actual.equals(expected)) {
+            return null;
+        }
+        Set<ChessMove> missing = new HashSet<>(expected);
+        missing.removeAll(actual);
+        Set<ChessMove> extra = new HashSet<>(actual);
+        extra.removeAll(expected);
+        return new Mismatch(name, Fen.format(game), null, missing, extra, null);
+    }
+
+    private boolean disagrees(MoveGenerator generator, ChessGame game) {
+        return compare("", generator, game, reference.legalMoves(game.detachedCopy())) != null;
+    }
+
+    /**
+     * @return the position with castling rights, then en passant, then each piece
+     * other than the kings taken away
+     */
+    private static List<ChessGame> simplifications(ChessGame game) {
+        List<ChessGame> candidates = new ArrayList<>();
+        ChessBoard board = game.currentBoard();
+        if (game.castlingRights() != 0) {
+            candidates.add(new ChessGame(new ChessBoard(board), game.getTeamTurn(), 0, game.enPassantTarget()));
+        }
+        if (game.enPassantTarget() != null) {
+            candidates.add(new ChessGame(new ChessBoard(board), game.getTeamTurn(), game.castlingRights(), null));
+        }
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.pieceAt(square);
+            if (piece == null || piece.getPieceType() == ChessPiece.PieceType.KING) {
+                continue;
+            }
+            ChessBoard smaller = new ChessBoard(board);
+            smaller.addPiece(new ChessPosition(square / 8 + 1, square % 8 + 1), null);
+            int castlingRights = game.castlingRights() & ChessGame.inferCastlingRights(smaller);
+            ChessPosition enPassantTarget = stillCapturable(smaller, game.enPassantTarget(), game.getTeamTurn());
+            candidates.add(new ChessGame(smaller, game.getTeamTurn(), castlingRights, enPassantTarget));
+        }
+        return candidates;
+    }
+
+    /**
+     * @return the en passant target if the pawn that skipped over it is still there
+     */
+    private static ChessPosition stillCapturable(ChessBoard board, ChessPosition target, ChessGame.TeamColor team) {
+        if (target == null) {
+            return null;
+        }
+        int pawnRow = target.getRow() + (team == ChessGame.TeamColor.WHITE ? -1 : 1);
+        ChessPiece pawn = board.getPiece(new ChessPosition(pawnRow, target.getColumn()));
+        boolean present = pawn != null && pawn.getTeamColor() != team &&
+                pawn.getPieceType() == ChessPiece.PieceType.PAWN;
+        return present ? target : null;
+    }
+
+    /**
+     * @return true if both kings are on the board and the side that just moved is not
+     * left in check
+     */
+    private static boolean isPlayable(ChessGame game) {
+        ChessBoard board = game.currentBoard();
+        return board.kingSquare(ChessGame.TeamColor.WHITE) >= 0 && board.kingSquare(ChessGame.TeamColor.BLACK) >= 0 &&
+                !ReferenceMoveGenerator.inCheck(board, game.getTeamTurn().opponent());
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("usage: DifferentialFuzzer <games> [threads] [seed]");
+            System.exit(1);
+        }
+        long games = Long.parseLong(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        System.out.println("Seed: " + seed);
+        Result result = new DifferentialFuzzer().run(games, threads, seed);
+        System.out.println("Games: " + result.games());
+        System.out.println("Positions: " + result.positions());
+        System.out.printf("Time: %.3f s%n", result.nanoseconds() / 1e9);
+        System.out.println("Positions/second: " + result.positionsPerSecond());
+
+        for (Mismatch mismatch : result.mismatches()) {
+            System.out.println();
+            System.out.println("Mismatch in " + mismatch.generator() + " at " + mismatch.fen());
+            System.out.println("  smallest: " + mismatch.minimalFen());
+            if (mismatch.error() != null) {
+                System.out.println("  threw: " + mismatch.error());
+            }
+            mismatch.missing().stream().sorted(MOVE_ORDER).forEach(move -> System.out.println("  missing: " + move));
+            mismatch.extra().stream().sorted(MOVE_ORDER).forEach(move -> System.out.println("  extra: " + move));
+        }
+        if (!result.mismatches().isEmpty()) {
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package chess;
+
+/**
+ * Reads and writes games in Forsyth-Edwards Notation (FEN), the standard one-line
+ * description of a chess position, for example the starting position:
+ * <pre>rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1</pre>
+ */
+public final class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private Fen() {
+    }
+
+    /**
+     * Builds a game from a FEN string. The move counters at the end may be left off.
+     *
+     * @param fen the position to load
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4 || fields.length > 6) {
+            throw new IllegalArgumentException("FEN needs 4 to 6 fields: " + fen);
+        }
+
+        ChessBoard board = parseBoard(fields[0]);
+
+        ChessGame.TeamColor teamTurn = switch (fields[1]) {
+            case "w" -> ChessGame.TeamColor.WHITE;
+            case "b" -> ChessGame.TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("Bad side to move: " + fields[1]);
+        };
+
+        int castlingRights = 0;
+        if (!fields[2].equals("-")) {
+            for (char c : fields[2].toCharArray()) {
+                castlingRights |= switch (c) {
+                    case 'K' -> ChessGame.WHITE_KINGSIDE;
+                    case 'Q' -> ChessGame.WHITE_QUEENSIDE;
+                    case 'k' -> ChessGame.BLACK_KINGSIDE;
+                    case 'q' -> ChessGame.BLACK_QUEENSIDE;
+                    default -> throw new IllegalArgumentException("Bad castling rights: " + fields[2]);
+                };
+            }
+        }
+
+        ChessPosition enPassantTarget = null;
+        if (!fields[3].equals("-")) {
+            enPassantTarget = parseSquare(fields[3]);
+        }
+
+        int halfmoveClock = fields.length > 4 ? parseCounter(fields[4]) : 0;
+        int fullmoveNumber = fields.length > 5 ? Math.max(1, parseCounter(fields[5])) : 1;
+        int plyCount = 2 * (fullmoveNumber - 1) + (teamTurn == ChessGame.TeamColor.BLACK ? 1 : 0);
+
+        return new ChessGame(board, teamTurn, castlingRights, enPassantTarget, halfmoveClock, plyCount);
+    }
+
+    /**
+     * Describes a game's current position in FEN
+     *
+     * @param game the game to describe
+     * @return the FEN string
+     */
+    public static String format(ChessGame game) {
+        if (game instanceof ConcurrentChessGame concurrent) {
+            game = concurrent.snapshot(); // read the board and the rest of the state together
+        }
+        StringBuilder fen = new StringBuilder();
+        ChessBoard board = game.currentBoard();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(piece.getSymbol());
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+
+        int rights = game.castlingRights();
+        if (rights == 0) {
+            fen.append('-');
+        } else {
+            if ((rights & ChessGame.WHITE_KINGSIDE) != 0) fen.append('K');
+            if ((rights & ChessGame.WHITE_QUEENSIDE) != 0) fen.append('Q');
+            if ((rights & ChessGame.BLACK_KINGSIDE) != 0) fen.append('k');
+            if ((rights & ChessGame.BLACK_QUEENSIDE) != 0) fen.append('q');
+        }
+
+        ChessPosition enPassantTarget = game.enPassantTarget();
+        fen.append(' ').append(enPassantTarget == null ? "-" : enPassantTarget.toString());
+        fen.append(' ').append(game.halfmoveClock());
+        fen.append(' ').append(game.plyCount() / 2 + 1);
+        return fen.toString();
+    }
+
+    private static ChessBoard parseBoard(String placement) {
+        String[] rows = placement.split("/");
+        if (rows.length != 8) {
+            throw new IllegalArgumentException("FEN board needs 8 rows: " + placement);
+        }
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (char c : rows[i].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                    continue;
+                }
+                if (col > 8) {
+                    throw new IllegalArgumentException("Too many squares in row " + row + ": " + placement);
+                }
+                board.addPiece(new ChessPosition(row, col), parsePiece(c));
+                col++;
+            }
+            if (col != 9) {
+                throw new IllegalArgumentException("Row " + row + " does not have 8 squares: " + placement);
+            }
+        }
+        return board;
+    }
+
+    private static ChessPiece parsePiece(char c) {
+        ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        ChessPiece.PieceType type = switch (Character.toLowerCase(c)) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Unknown piece: " + c);
+        };
+        return new ChessPiece(color, type);
+    }
+
+    private static ChessPosition parseSquare(String square) {
+        if (square.length() != 2) {
+            throw new IllegalArgumentException("Bad square: " + square);
+        }
+        int col = square.charAt(0) - 'a' + 1;
+        int row = square.charAt(1) - '0';
+        return new ChessPosition(row, col);
+    }
+
+    private static int parseCounter(String counter) {
+        try {
+            return Integer.parseInt(counter);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad move counter: " + counter, e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Something that lists every legal move in a position. The {@link DifferentialFuzzer}
+ * checks implementations against the {@link ReferenceMoveGenerator}.
+ */
+@FunctionalInterface
+public interface MoveGenerator {
+
+    /**
+     * {@link ChessGame#allValidMoves()}
+     */
+    MoveGenerator VALID_MOVES = game -> new HashSet<>(game.allValidMoves());
+
+    /**
+     * {@link ChessGame#allValidMoves()} with check detection answered by an {@link AttackMap}
+     */
+    MoveGenerator ATTACK_TRACKING = game -> {
+        ChessGame copy = game.detachedCopy();
+        copy.setAttackTracking(true);
+        return new HashSet<>(copy.allValidMoves());
+    };
+
+    /**
+     * {@link ChessGame#isLegal(ChessMove)} asked about every move from every piece of the
+     * side to move to every square, with every promotion for pawns
+     */
+    MoveGenerator IS_LEGAL = game -> {
+        ChessBoard board = game.currentBoard();
+        Set<ChessMove> moves = new HashSet<>();
+        for (int from = 0; from < 64; from++) {
+            ChessPiece piece = board.pieceAt(from);
+            if (piece == null || piece.getTeamColor() != game.getTeamTurn()) {
+                continue;
+            }
+            ChessPosition start = new ChessPosition(from / 8 + 1, from % 8 + 1);
+            var promotions = new ArrayList<ChessPiece.PieceType>();
+            promotions.add(null);
+            if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+                promotions.addAll(List.of(ChessPiece.PieceType.values()));
+            }
+            for (int to = 0; to < 64; to++) {
+                ChessPosition end = new ChessPosition(to / 8 + 1, to % 8 + 1);
+                for (ChessPiece.PieceType promotion : promotions) {
+                    ChessMove move = new ChessMove(start, end, promotion);
+                    if (game.isLegal(move)) {
+                        moves.add(move);
+                    }
+                }
+            }
+        }
+        return moves;
+    };
+
+    /**
+     * Lists the legal moves for the side to move. Must leave the game as it found it.
+     *
+     * @param game the position to generate moves for
+     * @return every legal move
+     */
+    Set<ChessMove> legalMoves(ChessGame game);
+}
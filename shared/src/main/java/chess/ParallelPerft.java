@@ -0,0 +1,141 @@
+package chess;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Perft spread across a {@link ForkJoinPool}.
+ * <p>
+ * The root moves become separate tasks, and so do the moves below them while more than
+ * {@code sequentialDepth} plies remain; below that each task counts on its own. Every
+ * task works on its own copy of the game, with its own board and undo stack, so
+ * nothing is shared between workers except the per-worker node tallies and, if one is
+ * given, a lock-free {@link PerftTable} of subtree counts.
+ */
+public class ParallelPerft {
+
+    /**
+     * The outcome of a parallel perft run
+     *
+     * @param nodes          the number of move sequences counted
+     * @param nanoseconds    how long counting took
+     * @param nodesPerWorker how many of the nodes each worker thread counted or found in
+     *                       the table; these add up to {@code nodes}
+     */
+    public record Result(long nodes, long nanoseconds, Map<String, Long> nodesPerWorker) {
+        public long nodesPerSecond() {
+            return nanoseconds == 0 ? 0 : nodes * 1_000_000_000L / nanoseconds;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int sequentialDepth;
+    private final PerftTable table;
+
+    /**
+     * Uses the common pool and counts the last 3 plies of each subtree on one thread
+     */
+    public ParallelPerft() {
+        this(ForkJoinPool.commonPool(), 3);
+    }
+
+    /**
+     * @param pool            the pool to run tasks on
+     * @param sequentialDepth subtrees this deep or shallower are not split further
+     */
+    public ParallelPerft(ForkJoinPool pool, int sequentialDepth) {
+        this(pool, sequentialDepth, null);
+    }
+
+    /**
+     * @param pool            the pool to run tasks on
+     * @param sequentialDepth subtrees this deep or shallower are not split further
+     * @param table           subtree counts shared by all workers, or null for none
+     */
+    public ParallelPerft(ForkJoinPool pool, int sequentialDepth, PerftTable table) {
+        if (sequentialDepth < 1) {
+            throw new IllegalArgumentException("sequentialDepth must be at least 1");
+        }
+        this.pool = pool;
+        this.sequentialDepth = sequentialDepth;
+        this.table = table;
+    }
+
+    /**
+     * @return the perft count for a game, which is left unchanged
+     */
+    public Result run(ChessGame game, int depth) {
+        Map<String, LongAdder> tallies = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        long nodes = pool.invoke(new PerftTask(game.detachedCopy(), depth, tallies));
+        long elapsed = System.nanoTime() - start;
+
+        Map<String, Long> nodesPerWorker = new TreeMap<>();
+        tallies.forEach((worker, count) -> nodesPerWorker.put(worker, count.sum()));
+        return new Result(nodes, elapsed, nodesPerWorker);
+    }
+
+    private class PerftTask extends RecursiveTask<Long> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Tasks only ever run in the pool they were forked into, so these are never serialized
+        private final transient ChessGame game;
+        private final int depth;
+        private final transient Map<String, LongAdder> tallies;
+
+        PerftTask(ChessGame game, int depth, Map<String, LongAdder> tallies) {
+            this.game = game;
+            this.depth = depth;
+            this.tallies = tallies;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= sequentialDepth) {
+                long nodes = Perft.count(game, depth, table);
+                tally(nodes);
+                return nodes;
+            }
+
+            long key = game.getZobristKey();
+            if (table != null) {
+                long nodes = table.probe(key, depth);
+                if (nodes >= 0) {
+                    tally(nodes);
+                    return nodes;
+                }
+            }
+
+            Collection<ChessMove> moves = game.allValidMoves();
+            List<PerftTask> children = new ArrayList<>(moves.size());
+            for (ChessMove move : moves) {
+                game.doMove(move);
+                children.add(new PerftTask(game.detachedCopy(), depth - 1, tallies));
+                game.undoMove();
+            }
+            invokeAll(children);
+
+            long nodes = 0;
+            for (PerftTask child : children) {
+                nodes += child.join();
+            }
+            if (table != null) {
+                table.store(key, depth, nodes);
+            }
+            return nodes;
+        }
+
+        private void tally(long nodes) {
+            tallies.computeIfAbsent(Thread.currentThread().getName(), worker -> new LongAdder()).add(nodes);
+        }
+    }
+}
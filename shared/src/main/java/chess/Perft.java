@@ -0,0 +1,173 @@
+package chess;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Performance test (perft): counts every sequence of valid moves of a given length.
+ * <p>
+ * The counts for well-known positions have been published, so comparing against them
+ * checks move generation (castling, en passant, promotion, pins and checks) far more
+ * thoroughly than any hand-written test, and the time taken measures its speed.
+ * Moves one ply above the leaves are counted, not made ("bulk counting").
+ * <p>
+ * Run from the command line with a position name from {@link PerftPosition} or a FEN
+ * string, a depth, and optionally a number of threads (see {@link ParallelPerft}) and
+ * megabytes of {@link PerftTable}:
+ * <pre>java chess.Perft kiwipete 4</pre>
+ * <pre>java chess.Perft kiwipete 6 32 1024</pre>
+ */
+public final class Perft {
+
+    /**
+     * The outcome of a perft run
+     *
+     * @param nodes       the number of move sequences counted
+     * @param nanoseconds how long counting took
+     */
+    public record Result(long nodes, long nanoseconds) {
+        public long nodesPerSecond() {
+            return nanoseconds == 0 ? 0 : nodes * 1_000_000_000L / nanoseconds;
+        }
+    }
+
+    private Perft() {
+    }
+
+    /**
+     * @return the perft count for a game, which is left unchanged
+     */
+    public static long perft(ChessGame game, int depth) {
+        return count(game.detachedCopy(), depth);
+    }
+
+    /**
+     * @return the perft count for a game along with how long it took
+     */
+    public static Result run(ChessGame game, int depth) {
+        ChessGame copy = game.detachedCopy();
+        long start = System.nanoTime();
+        long nodes = count(copy, depth);
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the perft count for a game, looking up and storing subtree counts in a
+     * table so transpositions are only counted once
+     */
+    public static Result run(ChessGame game, int depth, PerftTable table) {
+        ChessGame copy = game.detachedCopy();
+        long start = System.nanoTime();
+        long nodes = count(copy, depth, table);
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * @return each valid move with the perft count for the remaining depth after it
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("divide needs a depth of at least 1");
+        }
+        ChessGame copy = game.detachedCopy();
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (ChessMove move : copy.allValidMoves()) {
+            copy.doMove(move);
+            counts.put(move, count(copy, depth - 1));
+            copy.undoMove();
+        }
+        return counts;
+    }
+
+    /**
+     * Counts from the game's current position, changing it along the way and putting
+     * it back before returning
+     */
+    static long count(ChessGame game, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        Collection<ChessMove> moves = game.allValidMoves();
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (ChessMove move : moves) {
+            game.doMove(move);
+            nodes += count(game, depth - 1);
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Like {@link #count(ChessGame, int)}, but with subtree counts cached in a table
+     */
+    static long count(ChessGame game, int depth, PerftTable table) {
+        if (table == null || depth < 2) {
+            return count(game, depth);
+        }
+        long key = game.getZobristKey();
+        long nodes = table.probe(key, depth);
+        if (nodes >= 0) {
+            return nodes;
+        }
+        nodes = 0;
+        for (ChessMove move : game.allValidMoves()) {
+            game.doMove(move);
+            nodes += count(game, depth - 1, table);
+            game.undoMove();
+        }
+        table.store(key, depth, nodes);
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 4) {
+            System.err.println("usage: Perft <position name | FEN> <depth> [threads] [hash MB]");
+            System.exit(1);
+        }
+        ChessGame game = PerftPosition.lookup(args[0])
+                .map(PerftPosition::game)
+                .orElseGet(() -> Fen.parse(args[0]));
+        int depth = Integer.parseInt(args[1]);
+
+        if (args.length >= 3) {
+            PerftTable table = args.length == 4 ?
+                    new PerftTable(Integer.parseInt(args[3]), PerftTable.Replacement.DEPTH_PREFERRED) : null;
+            runParallel(game, depth, Integer.parseInt(args[2]), table);
+            return;
+        }
+
+        long start = System.nanoTime();
+        long total = 0;
+        for (Map.Entry<ChessMove, Long> entry : divide(game, depth).entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        Result result = new Result(total, System.nanoTime() - start);
+        System.out.println();
+        System.out.println("Nodes: " + result.nodes());
+        System.out.printf("Time: %.3f s%n", result.nanoseconds() / 1e9);
+        System.out.println("Nodes/second: " + result.nodesPerSecond());
+    }
+
+    private static void runParallel(ChessGame game, int depth, int threads, PerftTable table) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            ParallelPerft.Result result = new ParallelPerft(pool, 3, table).run(game, depth);
+            result.nodesPerWorker().forEach((worker, nodes) -> System.out.println(worker + ": " + nodes));
+            System.out.println();
+            System.out.println("Nodes: " + result.nodes());
+            System.out.printf("Time: %.3f s%n", result.nanoseconds() / 1e9);
+            System.out.println("Nodes/second: " + result.nodesPerSecond());
+            if (table != null) {
+                System.out.printf("Table hit rate: %.1f%%%n", table.hitRate() * 100);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
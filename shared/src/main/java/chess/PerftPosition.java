@@ -0,0 +1,75 @@
+package chess;
+
+import java.util.Optional;
+
+/**
+ * Standard perft test positions with their published node counts, from the
+ * Chess Programming Wiki "Perft Results" page. Each one stresses different rules.
+ */
+public enum PerftPosition {
+    START("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            20, 400, 8_902, 197_281, 4_865_609, 119_060_324),
+    // Castling, pins, en passant and promotion all within a few moves
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            48, 2_039, 97_862, 4_085_603, 193_690_690),
+    // Rook endgame where en passant captures can expose the king along the rank
+    EN_PASSANT_PIN("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            14, 191, 2_812, 43_238, 674_624, 11_030_083),
+    // White starts in check from the b6 bishop; Black can promote on b2, with or without
+    // capturing on a1, and still has both castling rights
+    PROMOTION("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            6, 264, 9_467, 422_333, 15_833_292),
+    // Promotion by capturing on c8, and kingside castling while a black knight on f2
+    // forks the queen and the h1 rook
+    PROMOTION_CHECK("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            44, 1_486, 62_379, 2_103_487, 89_941_194),
+    // A quiet, balanced middlegame
+    MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            46, 2_079, 89_890, 3_894_594, 164_075_551);
+
+    private final String fen;
+    private final long[] nodes;
+
+    PerftPosition(String fen, long... nodes) {
+        this.fen = fen;
+        this.nodes = nodes;
+    }
+
+    public String fen() {
+        return fen;
+    }
+
+    /**
+     * @return a new game set up in this position
+     */
+    public ChessGame game() {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * @return the deepest depth with a published count
+     */
+    public int maxDepth() {
+        return nodes.length;
+    }
+
+    /**
+     * @return the published perft count at a depth, starting from 1
+     */
+    public long expectedNodes(int depth) {
+        return nodes[depth - 1];
+    }
+
+    /**
+     * @return the position with the given name, ignoring case and using - or _
+     */
+    public static Optional<PerftPosition> lookup(String name) {
+        String key = name.trim().toUpperCase().replace('-', '_');
+        for (PerftPosition position : values()) {
+            if (position.name().equals(key)) {
+                return Optional.of(position);
+            }
+        }
+        return Optional.empty();
+    }
+}
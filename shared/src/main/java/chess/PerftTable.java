@@ -0,0 +1,122 @@
+package chess;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash table of perft subtree counts, keyed by Zobrist key and depth,
+ * that any number of threads can use at once without locks.
+ * <p>
+ * Each entry is two longs: the data word (node count and depth) and a check word
+ * holding {@code key ^ data}. A reader only trusts an entry when the two still XOR to
+ * the key it is looking for, so an entry torn by two threads writing at once is
+ * simply treated as a miss rather than returning a wrong count.
+ */
+public class PerftTable {
+
+    /**
+     * What to do when a new count maps to a slot that is already in use
+     */
+    public enum Replacement {
+        /** Always overwrite the slot with the newest count */
+        ALWAYS,
+        /** Keep the slot's count if it covers a deeper subtree than the new one */
+        DEPTH_PREFERRED
+    }
+
+    private static final int ENTRY_BYTES = 16;
+    // Each entry is two longs, and the array holding them can't reach 2^31 longs
+    static final int MAX_ENTRIES = 1 << 29;
+    private static final int DEPTH_BITS = 8;
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+
+    private final AtomicLongArray entries; // check word, data word, check word, ...
+    private final int indexMask;
+    private final Replacement replacement;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder probes = new LongAdder();
+
+    /**
+     * @param megabytes   how much memory to use; rounded down to a power of two entries, at most
+     *                    8 GB
+     * @param replacement the replacement scheme
+     */
+    public PerftTable(int megabytes, Replacement replacement) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("The table needs at least 1 MB");
+        }
+        int size = entriesFor(megabytes);
+        this.entries = new AtomicLongArray(size * 2);
+        this.indexMask = size - 1;
+        this.replacement = replacement;
+    }
+
+    /**
+     * @return how many entries a table of the given size holds
+     */
+    static int entriesFor(int megabytes) {
+        long wanted = (long) megabytes * 1024 * 1024 / ENTRY_BYTES;
+        return Integer.highestOneBit((int) Math.min(wanted, MAX_ENTRIES));
+    }
+
+    /**
+     * @return how many entries the table holds
+     */
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    /**
+     * @return the stored count for a position and depth, or -1 if there is none
+     */
+    public long probe(long key, int depth) {
+        probes.increment();
+        int slot = slot(key);
+        long data = entries.getOpaque(slot + 1);
+        long check = entries.getOpaque(slot);
+        if ((check ^ data) != key || (data & DEPTH_MASK) != depth) {
+            return -1;
+        }
+        hits.increment();
+        return data >>> DEPTH_BITS;
+    }
+
+    /**
+     * Stores the count for a position and depth, subject to the replacement scheme
+     */
+    public void store(long key, int depth, long nodes) {
+        int slot = slot(key);
+        if (replacement == Replacement.DEPTH_PREFERRED) {
+            long oldData = entries.getOpaque(slot + 1);
+            if ((oldData & DEPTH_MASK) > depth) {
+                return;
+            }
+        }
+        long data = nodes << DEPTH_BITS | depth;
+        entries.setOpaque(slot + 1, data);
+        entries.setOpaque(slot, key ^ data);
+    }
+
+    /**
+     * @return the fraction of probes that found a count
+     */
+    public double hitRate() {
+        long total = probes.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    /**
+     * Empties the table
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.setOpaque(i, 0);
+        }
+        hits.reset();
+        probes.reset();
+    }
+
+    private int slot(long key) {
+        return ((int) key & indexMask) * 2;
+    }
+}
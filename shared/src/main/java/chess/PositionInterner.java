@@ -0,0 +1,147 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets many games that reach the same early position share one copy of it.
+ * <p>
+ * Positions are looked up by Zobrist key. A game attached with
+ * {@link ChessGame#setPositionInterner(PositionInterner)} swaps its own board for the
+ * shared one after each of its first {@code maxPly} moves, and answers
+ * {@link ChessGame#validMoves(ChessPosition)} from the shared position's move cache.
+ * The shared board is never changed; a game copies it back out before its next move
+ * or when its board is handed out.
+ * <p>
+ * Positions are kept until {@link #clear()} is called, so the interner only takes new
+ * positions while it holds fewer than {@code capacity} of them.
+ */
+public class PositionInterner {
+
+    private final int maxPly;
+    private final int capacity;
+    private final ConcurrentHashMap<Long, SharedPosition> positions = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PositionInterner() {
+        this(16, 100_000);
+    }
+
+    /**
+     * @param maxPly   games stop sharing once they have made this many moves
+     * @param capacity the most positions to keep
+     */
+    public PositionInterner(int maxPly, int capacity) {
+        if (maxPly < 0 || capacity < 0) {
+            throw new IllegalArgumentException("maxPly and capacity must not be negative");
+        }
+        this.maxPly = maxPly;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return how many positions are being shared
+     */
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * @return how many times a game found its position already shared
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return how many times a game's position was not shared yet
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Forgets every shared position. Games holding one keep it until they move on.
+     */
+    public void clear() {
+        positions.clear();
+    }
+
+    /**
+     * Finds the shared copy of a position, adding it if there is room
+     *
+     * @return the shared position, or null if the position should not be shared
+     */
+    SharedPosition intern(long key, ChessBoard board, ChessGame.TeamColor teamTurn, int castlingRights,
+                          ChessPosition enPassantTarget, int plyCount) {
+        if (plyCount > maxPly) {
+            return null;
+        }
+        SharedPosition shared = positions.get(key);
+        if (shared == null) {
+            misses.increment();
+            if (positions.size() >= capacity) {
+                return null;
+            }
+            var copy = new ChessBoard(board);
+            copy.setAttackTracking(false); // the shared board never changes, so a map would only go stale
+            SharedPosition created = new SharedPosition(copy, teamTurn, castlingRights, enPassantTarget);
+            shared = positions.putIfAbsent(key, created);
+            if (shared == null) {
+                return created;
+            }
+        } else {
+            hits.increment();
+        }
+        // Two positions with the same key are possible, if unlikely, so make sure it really is ours
+        return shared.matches(board, teamTurn, castlingRights, enPassantTarget) ? shared : null;
+    }
+
+    /**
+     * One position shared between games, with its legal moves filled in as they are asked for
+     */
+    static final class SharedPosition {
+        private final ChessBoard board;
+        private final ChessGame.TeamColor teamTurn;
+        private final int castlingRights;
+        private final ChessPosition enPassantTarget;
+        private final ConcurrentHashMap<ChessPosition, Collection<ChessMove>> legalMoves = new ConcurrentHashMap<>();
+
+        private SharedPosition(ChessBoard board, ChessGame.TeamColor teamTurn, int castlingRights,
+                               ChessPosition enPassantTarget) {
+            this.board = board;
+            this.teamTurn = teamTurn;
+            this.castlingRights = castlingRights;
+            this.enPassantTarget = enPassantTarget;
+        }
+
+        /**
+         * @return the shared board, which must never be changed
+         */
+        ChessBoard board() {
+            return board;
+        }
+
+        Collection<ChessMove> legalMovesFrom(ChessPosition startPosition) {
+            if (board.getPiece(startPosition) == null) {
+                return null;
+            }
+            return legalMoves.computeIfAbsent(startPosition, start -> {
+                // Testing legality moves pieces around, so do it on a private copy
+                var game = new ChessGame(new ChessBoard(board), teamTurn, castlingRights, enPassantTarget);
+                return Collections.unmodifiableList(new ArrayList<>(game.validMoves(start)));
+            });
+        }
+
+        private boolean matches(ChessBoard board, ChessGame.TeamColor teamTurn, int castlingRights,
+                                ChessPosition enPassantTarget) {
+            return this.teamTurn == teamTurn && this.castlingRights == castlingRights &&
+                    Objects.equals(this.enPassantTarget, enPassantTarget) && this.board.equals(board);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package chess;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The slow, obviously correct way to list legal moves, used as the yardstick for faster
+ * generators.
+ * <p>
+ * Moves come straight from {@link ChessPiece#pieceMoves(ChessBoard, ChessPosition)}, with
+ * castling and en passant added by hand. Each is tried out on its own copy of the board,
+ * and a square counts as attacked if any enemy piece's pieceMoves could capture a piece
+ * standing there. Nothing here relies on {@link ChessGame}'s own legality checks,
+ * {@link AttackTables} or {@link AttackMap}.
+ */
+public class ReferenceMoveGenerator implements MoveGenerator {
+
+    @Override
+    public Set<ChessMove> legalMoves(ChessGame game) {
+        ChessBoard board = new ChessBoard(game.currentBoard());
+        ChessGame.TeamColor team = game.getTeamTurn();
+        Set<ChessMove> moves = new HashSet<>();
+
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition start = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(start);
+                if (piece == null || piece.getTeamColor() != team) {
+                    continue;
+                }
+                for (ChessMove move : piece.pieceMoves(board, start)) {
+                    if (!inCheck(play(board, move, null), team)) {
+                        moves.add(move);
+                    }
+                }
+            }
+        }
+        addEnPassant(moves, board, team, game.enPassantTarget());
+        addCastling(moves, board, team, game.castlingRights());
+        return moves;
+    }
+
+    /**
+     * @return true if a team's king is missing or could be captured
+     */
+    static boolean inCheck(ChessBoard board, ChessGame.TeamColor team) {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(position);
+                if (piece != null && piece.getTeamColor() == team && piece.getPieceType() == ChessPiece.PieceType.KING) {
+                    return attacked(board, position, team.opponent());
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if a piece of the attacking team could capture a piece of the other
+     * team on the given square
+     */
+    static boolean attacked(ChessBoard board, ChessPosition square, ChessGame.TeamColor attacker) {
+        ChessPiece target = board.getPiece(square);
+        if (target == null || target.getTeamColor() == attacker) {
+            board = new ChessBoard(board);
+            board.addPiece(square, new ChessPiece(attacker.opponent(), ChessPiece.PieceType.KING));
+        }
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(position);
+                if (piece == null || piece.getTeamColor() != attacker) {
+                    continue;
+                }
+                for (ChessMove move : piece.pieceMoves(board, position)) {
+                    if (move.getEndPosition().equals(square)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void addEnPassant(Set<ChessMove> moves, ChessBoard board, ChessGame.TeamColor team,
+                                     ChessPosition target) {
+        if (target == null) {
+            return;
+        }
+        int fromRow = target.getRow() - (team == ChessGame.TeamColor.WHITE ? 1 : -1);
+        ChessPosition captured = new ChessPosition(fromRow, target.getColumn());
+        if (!new ChessPiece(team.opponent(), ChessPiece.PieceType.PAWN).equals(board.getPiece(captured))) {
+            return;
+        }
+        for (int col = target.getColumn() - 1; col <= target.getColumn() + 1; col += 2) {
+            if (col < 1 || col > 8) {
+                continue;
+            }
+            ChessPosition start = new ChessPosition(fromRow, col);
+            if (!new ChessPiece(team, ChessPiece.PieceType.PAWN).equals(board.getPiece(start))) {
+                continue;
+            }
+            ChessMove move = new ChessMove(start, target, null);
+            if (!inCheck(play(board, move, captured), team)) {
+                moves.add(move);
+            }
+        }
+    }
+
+    private static void addCastling(Set<ChessMove> moves, ChessBoard board, ChessGame.TeamColor team, int rights) {
+        boolean white = team == ChessGame.TeamColor.WHITE;
+        int row = white ? 1 : 8;
+        ChessPosition kingStart = new ChessPosition(row, 5);
+        if (!new ChessPiece(team, ChessPiece.PieceType.KING).equals(board.getPiece(kingStart)) ||
+                attacked(board, kingStart, team.opponent())) {
+            return;
+        }
+        if ((rights & (white ? ChessGame.WHITE_KINGSIDE : ChessGame.BLACK_KINGSIDE)) != 0) {
+            addCastle(moves, board, team, row, 8, new int[]{6, 7}, 6, 7);
+        }
+        if ((rights & (white ? ChessGame.WHITE_QUEENSIDE : ChessGame.BLACK_QUEENSIDE)) != 0) {
+            addCastle(moves, board, team, row, 1, new int[]{2, 3, 4}, 4, 3);
+        }
+    }
+
+    private static void addCastle(Set<ChessMove> moves, ChessBoard board, ChessGame.TeamColor team, int row,
+                                  int rookCol, int[] emptyCols, int passCol, int landCol) {
+        if (!new ChessPiece(team, ChessPiece.PieceType.ROOK).equals(board.getPiece(new ChessPosition(row, rookCol)))) {
+            return;
+        }
+        for (int col : emptyCols) {
+            if (board.getPiece(new ChessPosition(row, col)) != null) {
+                return;
+            }
+        }
+        ChessPosition kingStart = new ChessPosition(row, 5);
+        if (attacked(board, new ChessPosition(row, passCol), team.opponent())) {
+            return;
+        }
+        ChessMove move = new ChessMove(kingStart, new ChessPosition(row, landCol), null);
+        ChessBoard after = play(board, move, null);
+        after.addPiece(new ChessPosition(row, passCol), after.getPiece(new ChessPosition(row, rookCol)));
+        after.addPiece(new ChessPosition(row, rookCol), null);
+        if (!inCheck(after, team)) {
+            moves.add(move);
+        }
+    }
+
+    /**
+     * @return a copy of the board with a move made on it, and the piece on another
+     * square removed if one is given
+     */
+    private static ChessBoard play(ChessBoard board, ChessMove move, ChessPosition alsoCaptured) {
+        ChessBoard after = new ChessBoard(board);
+        ChessPiece piece = after.getPiece(move.getStartPosition());
+        if (move.getPromotionPiece() != null) {
+            piece = new ChessPiece(piece.getTeamColor(), move.getPromotionPiece());
+        }
+        after.addPiece(move.getStartPosition(), null);
+        after.addPiece(move.getEndPosition(), piece);
+        if (alsoCaptured != null) {
+            after.addPiece(alsoCaptured, null);
+        }
+        return after;
+    }
+}
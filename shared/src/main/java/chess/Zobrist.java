@@ -0,0 +1,78 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist hashing keys for chess positions.
+ * <p>
+ * A position's key is the XOR of one random number per piece on its square, plus
+ * numbers for the side to move, the castling rights and the en passant file. Keys
+ * come from a fixed seed so they are the same on every run and every machine.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x240C4E55L);
+        for (long[] keys : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        for (int rights = 0; rights < 16; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the key for a piece standing on a square, or 0 for an empty square
+     */
+    public static long pieceKey(ChessPiece piece, int row, int col) {
+        if (piece == null) {
+            return 0;
+        }
+        return PIECE_SQUARE[pieceIndex(piece)][(row - 1) * 8 + (col - 1)];
+    }
+
+    /**
+     * @return the key for everything in a position other than the pieces
+     */
+    public static long stateKey(ChessGame.TeamColor teamTurn, int castlingRights, ChessPosition enPassantTarget) {
+        long key = CASTLING[castlingRights & 15];
+        if (teamTurn == ChessGame.TeamColor.BLACK) {
+            key ^= BLACK_TO_MOVE;
+        }
+        if (enPassantTarget != null) {
+            key ^= EN_PASSANT_FILE[enPassantTarget.getColumn() - 1];
+        }
+        return key;
+    }
+
+    /**
+     * @return the XOR of the keys of every piece on a board
+     */
+    public static long boardKey(ChessBoard board) {
+        long key = 0;
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                key ^= pieceKey(board.getPiece(new ChessPosition(row, col)), row, col);
+            }
+        }
+        return key;
+    }
+
+    private static int pieceIndex(ChessPiece piece) {
+        return piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal();
+    }
+}
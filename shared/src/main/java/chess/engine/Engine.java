@@ -0,0 +1,203 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Fen;
+import chess.PerftPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Finds good moves for a {@link ChessGame}, for computer opponents and move hints.
+ * <p>
+ * Each search runs on a {@link Position} copied from the game, so the game itself is
+ * never touched and can go on being played while a search runs. Results are kept in a
+ * {@link TranspositionTable} from one search to the next, so searching the same game
+ * again after a move starts with much of the work already done.
+ * <p>
+ * With more than one thread, the engine runs a Lazy SMP search: helper searches on their
+ * own threads share the table with the main search but are otherwise independent. Only
+ * the main search's result is reported; the helpers make it faster by filling the table.
+ * Every thread is stopped as soon as the main search finishes.
+ * <p>
+ * Given an {@link OpeningBook}, the engine plays book moves without searching for as long
+ * as the game stays in the book.
+ * <p>
+ * Run from the command line with a position name from {@link PerftPosition} or a FEN
+ * string, a time in milliseconds and optionally a number of threads:
+ * <pre>java chess.engine.Engine kiwipete 1000 8</pre>
+ */
+public class Engine {
+
+    public static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    private final TranspositionTable table;
+    private final int threads;
+    private final Set<SearchFeature> features;
+    private volatile List<Search> running = List.of();
+    // Set by stop, so a stop that comes before the searches are published is not lost
+    private volatile boolean stopRequested;
+    private volatile OpeningBook book;
+
+    public Engine() {
+        this(DEFAULT_HASH_MEGABYTES, 1);
+    }
+
+    /**
+     * @param hashMegabytes how much memory the transposition table uses
+     */
+    public Engine(int hashMegabytes) {
+        this(hashMegabytes, 1);
+    }
+
+    /**
+     * @param hashMegabytes how much memory the transposition table uses
+     * @param threads       how many threads each search uses, including the main one
+     */
+    public Engine(int hashMegabytes, int threads) {
+        this(hashMegabytes, threads, SearchFeature.all());
+    }
+
+    /**
+     * @param hashMegabytes how much memory the transposition table uses
+     * @param threads       how many threads each search uses, including the main one
+     * @param features      the selective search techniques to use
+     */
+    public Engine(int hashMegabytes, int threads, Set<SearchFeature> features) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("An engine needs at least one thread");
+        }
+        this.table = new TranspositionTable(hashMegabytes);
+        this.threads = threads;
+        this.features = Set.copyOf(features);
+    }
+
+    /**
+     * Searches a game's current position
+     *
+     * @param game   the game to find a move for
+     * @param limits when to stop
+     * @return the result of the deepest completed iteration
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game, limits, null);
+    }
+
+    /**
+     * Searches a game's current position, reporting each completed iteration
+     *
+     * @param listener told about each completed iteration, or null
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, Consumer<SearchResult> listener) {
+        stopRequested = false;
+        Position position = Position.of(game);
+        OpeningBook book = this.book;
+        if (book != null) {
+            long start = System.nanoTime();
+            ChessMove move = book.pick(position, ThreadLocalRandom.current());
+            if (move != null) {
+                SearchResult result = new SearchResult(move, 0, 0, 0, System.nanoTime() - start, List.of(move));
+                if (listener != null) {
+                    listener.accept(result);
+                }
+                return result;
+            }
+        }
+        table.newSearch();
+        Search main = new Search(position, table, features);
+        List<Search> searches = new ArrayList<>(List.of(main));
+        List<Thread> helpers = new ArrayList<>();
+        // Helpers search until they are stopped, so only the main search's limits matter
+        SearchLimits helperLimits = SearchLimits.depth(limits.depth());
+        for (int i = 1; i < threads; i++) {
+            Search helper = new Search(position.copy(), table, features, i);
+            searches.add(helper);
+            helpers.add(Thread.ofPlatform().name("search-helper-" + i).daemon()
+                    .unstarted(() -> helper.run(helperLimits, null)));
+        }
+        running = searches;
+        if (stopRequested) {
+            searches.forEach(Search::stop);
+        }
+        helpers.forEach(Thread::start);
+        try {
+            return main.run(limits, listener);
+        } finally {
+            searches.forEach(Search::stop);
+            for (Thread thread : helpers) {
+                joinUninterruptibly(thread);
+            }
+            running = List.of();
+        }
+    }
+
+    /**
+     * @return the best move found within the given time, or null if there are no legal moves
+     */
+    public ChessMove bestMove(ChessGame game, long millis) {
+        return search(game, SearchLimits.time(millis)).bestMove();
+    }
+
+    /**
+     * Stops the search in progress, which then returns its best result so far. A search
+     * always completes its first iteration, so it has a move to return.
+     */
+    public void stop() {
+        stopRequested = true;
+        running.forEach(Search::stop);
+    }
+
+    /**
+     * @param book where to look for moves before searching, or null to always search
+     */
+    public void setBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Forgets everything learned in earlier searches, as when a new game starts
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * @return how full the transposition table is, in thousandths
+     */
+    public int hashfull() {
+        return table.hashfull();
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("usage: Engine <position name | FEN> <milliseconds> [threads]");
+            System.exit(1);
+        }
+        ChessGame game = PerftPosition.lookup(args[0])
+                .map(PerftPosition::game)
+                .orElseGet(() -> Fen.parse(args[0]));
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        SearchResult result = new Engine(DEFAULT_HASH_MEGABYTES, threads).search(game, SearchLimits.time(Long.parseLong(args[1])),
+                info -> System.out.println("info " + info));
+        System.out.println("bestmove " + (result.bestMove() == null ? "(none)" : result.bestMove()));
+    }
+}
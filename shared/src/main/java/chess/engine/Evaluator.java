@@ -0,0 +1,158 @@
+package chess.engine;
+
+import chess.AttackTables;
+
+/**
+ * Scores a position in centipawns from the point of view of the side to move.
+ * <p>
+ * Material and piece-square scores come in a middlegame and an endgame version, which
+ * {@link Position} keeps up to date as pieces are put down and picked up, along with a
+ * game phase counted from the pieces left on the board. The two are blended by phase,
+ * so the evaluation slides from middlegame to endgame values as pieces come off. On top
+ * of that, mobility and king safety are counted from each piece's attacks, and the pawn
+ * structure is scored, through a {@link PawnTable} since it so rarely changes.
+ */
+public final class Evaluator {
+
+    /**
+     * Simple piece values, for pruning decisions that need a rough idea of what a capture
+     * wins
+     */
+    public static final int[] PIECE_VALUES = {0, 100, 320, 330, 500, 900, 0};
+
+    /**
+     * The phase with all pieces on the board; the endgame is phase 0
+     */
+    public static final int MAX_PHASE = 24;
+
+    private static final int[] MIDDLEGAME_VALUES = {0, 82, 337, 365, 477, 1025, 0};
+    private static final int[] ENDGAME_VALUES = {0, 94, 281, 297, 512, 936, 0};
+    private static final int[] PHASE_WEIGHTS = {0, 0, 1, 1, 2, 4, 0};
+
+    // Per square attacked, beyond a typical number of squares, for knights to queens
+    private static final int[] MOBILITY_MIDDLEGAME = {0, 0, 4, 5, 2, 1, 0};
+    private static final int[] MOBILITY_ENDGAME = {0, 0, 4, 5, 4, 2, 0};
+    private static final int[] TYPICAL_MOBILITY = {0, 0, 4, 6, 6, 12, 0};
+
+    // How much each piece attacking the squares around the enemy king adds to the danger
+    private static final int[] KING_ATTACK_WEIGHTS = {0, 0, 2, 2, 3, 5, 0};
+    private static final int MAX_KING_DANGER = 400;
+
+    // Endgame bonus by rank for a passed pawn with nothing in its way
+    private static final int[] FREE_PASSED_PAWN = {0, 0, 5, 10, 20, 35, 60, 0};
+
+    /**
+     * Material plus piece-square score by piece (as from {@link Piece#make}) and square,
+     * positive for White and negative for Black
+     */
+    static final int[][] MIDDLEGAME = new int[16][64];
+    static final int[][] ENDGAME = new int[16][64];
+    static final int[] PHASE = new int[16];
+
+    static {
+        for (int type = Piece.PAWN; type <= Piece.KING; type++) {
+            for (int square = 0; square < 64; square++) {
+                int white = Piece.make(Piece.WHITE, type);
+                int black = Piece.make(Piece.BLACK, type);
+                // Tables are written from White's side; Black's square is the same one mirrored
+                MIDDLEGAME[white][square] = MIDDLEGAME_VALUES[type] + middlegameBonus(type, square);
+                ENDGAME[white][square] = ENDGAME_VALUES[type] + endgameBonus(type, square);
+                MIDDLEGAME[black][square ^ 56] = -MIDDLEGAME[white][square];
+                ENDGAME[black][square ^ 56] = -ENDGAME[white][square];
+                PHASE[white] = PHASE_WEIGHTS[type];
+                PHASE[black] = PHASE_WEIGHTS[type];
+            }
+        }
+    }
+
+    private Evaluator() {
+    }
+
+    /**
+     * Evaluates a single position. Searches should keep a {@link PawnTable} and use
+     * {@link #evaluate(Position, PawnTable)}.
+     */
+    public static int evaluate(Position position) {
+        return evaluate(position, new PawnTable(1));
+    }
+
+    static int evaluate(Position position, PawnTable pawns) {
+        int pawnSlot = pawns.probe(position);
+        int middlegame = position.middlegameScore() + pawns.middlegame(pawnSlot);
+        int endgame = position.endgameScore() + pawns.endgame(pawnSlot);
+        long occupied = position.occupancy(Piece.WHITE) | position.occupancy(Piece.BLACK);
+        for (int color = Piece.WHITE; color <= Piece.BLACK; color++) {
+            int sign = color == Piece.WHITE ? 1 : -1;
+            long own = position.occupancy(color);
+            int enemyKing = position.kingSquare(color ^ 1);
+            long enemyKingZone = enemyKing >= 0 ? AttackTables.kingAttacks(enemyKing) : 0;
+            for (long bits = pawns.passed(pawnSlot) & own; bits != 0; bits &= bits - 1) {
+                int square = Long.numberOfTrailingZeros(bits);
+                if ((PawnTable.path(color, square) & occupied) == 0) {
+                    endgame += sign * FREE_PASSED_PAWN[color == Piece.WHITE ? square / 8 : 7 - square / 8];
+                }
+            }
+            int kingAttackers = 0;
+            int kingDanger = 0;
+            for (int type = Piece.KNIGHT; type <= Piece.QUEEN; type++) {
+                for (long bits = position.pieces(Piece.make(color, type)); bits != 0; bits &= bits - 1) {
+                    long attacks = position.attacks(Long.numberOfTrailingZeros(bits));
+                    int mobility = Long.bitCount(attacks & ~own) - TYPICAL_MOBILITY[type];
+                    middlegame += sign * mobility * MOBILITY_MIDDLEGAME[type];
+                    endgame += sign * mobility * MOBILITY_ENDGAME[type];
+                    int kingZoneAttacks = Long.bitCount(attacks & enemyKingZone);
+                    if (kingZoneAttacks != 0) {
+                        kingAttackers++;
+                        kingDanger += KING_ATTACK_WEIGHTS[type] * kingZoneAttacks;
+                    }
+                }
+            }
+            // One piece near the king is easily dealt with; it takes several to make an attack
+            if (kingAttackers >= 2) {
+                middlegame += sign * Math.min(kingDanger * kingDanger, MAX_KING_DANGER);
+            }
+        }
+        int phase = Math.min(position.phase(), MAX_PHASE);
+        int score = (middlegame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
+        return position.sideToMove() == Piece.WHITE ? score : -score;
+    }
+
+    private static int middlegameBonus(int type, int square) {
+        int row = square / 8;
+        int col = square % 8;
+        int centrality = centrality(square);
+        return switch (type) {
+            case Piece.PAWN -> (row - 1) * 4 + ((col == 3 || col == 4) && (row == 3 || row == 4) ? 15 : 0);
+            case Piece.KNIGHT -> centrality * 4 - 20;
+            case Piece.BISHOP -> centrality * 2 - 6;
+            case Piece.ROOK -> (row == 6 ? 15 : 0) + (col == 3 || col == 4 ? 5 : 0);
+            case Piece.QUEEN -> centrality - 5;
+            // Tucked away behind the pawns, having castled or ready to
+            case Piece.KING -> row > 0 ? -15 * row : col == 1 || col == 2 || col == 6 ? 20 : col == 4 ? 0 : 10;
+            default -> 0;
+        };
+    }
+
+    private static int endgameBonus(int type, int square) {
+        int row = square / 8;
+        int centrality = centrality(square);
+        return switch (type) {
+            case Piece.PAWN -> (row - 1) * 12;
+            case Piece.KNIGHT -> centrality * 3 - 15;
+            case Piece.BISHOP, Piece.QUEEN -> centrality * 2 - 10;
+            case Piece.ROOK -> row == 6 ? 10 : 0;
+            // The king joins in once it is safe to
+            case Piece.KING -> centrality * 5 - 30;
+            default -> 0;
+        };
+    }
+
+    /**
+     * @return from 0 in the corners up to 12 in the middle four squares
+     */
+    private static int centrality(int square) {
+        int rowDistance = Math.min(square / 8, 7 - square / 8);
+        int colDistance = Math.min(square % 8, 7 - square % 8);
+        return Math.min(rowDistance, colDistance) * 2 + rowDistance + colDistance;
+    }
+}
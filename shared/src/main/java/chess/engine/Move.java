@@ -0,0 +1,88 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.ChessPosition;
+
+/**
+ * Moves packed into an int, so move lists are plain int arrays.
+ * <p>
+ * Bits 0-5 hold the start square and bits 6-11 the end square, numbered as in
+ * {@link chess.AttackTables}. Bits 12-14 hold the promotion piece type, and the bits
+ * above mark captures, en passant, castling and double pawn pushes. Zero is never a
+ * real move, so it stands for "no move".
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int EN_PASSANT = 1 << 16;
+    public static final int CASTLE = 1 << 17;
+    public static final int DOUBLE_PUSH = 1 << 18;
+
+    private Move() {
+    }
+
+    public static int make(int from, int to, int flags) {
+        return from | to << 6 | flags;
+    }
+
+    public static int make(int from, int to, int promotion, int flags) {
+        return from | to << 6 | promotion << 12 | flags;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return move >>> 6 & 63;
+    }
+
+    /**
+     * @return the piece type a pawn promotes to, or {@link Piece#NONE}
+     */
+    public static int promotion(int move) {
+        return move >>> 12 & 7;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * @return true for captures and promotions, the moves that change the material count
+     */
+    public static boolean isTactical(int move) {
+        return (move & CAPTURE) != 0 || promotion(move) != Piece.NONE;
+    }
+
+    /**
+     * @return the move without its flags, which is enough to tell moves in one position apart
+     */
+    public static int squaresAndPromotion(int move) {
+        return move & 0x7FFF;
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(position(from(move)), position(to(move)), Piece.toPieceType(promotion(move)));
+    }
+
+    public static ChessPosition position(int square) {
+        return new ChessPosition(square / 8 + 1, square % 8 + 1);
+    }
+
+    public static int square(ChessPosition position) {
+        return (position.getRow() - 1) * 8 + position.getColumn() - 1;
+    }
+
+    /**
+     * @return the move in UCI notation, e.g. e7e8q
+     */
+    public static String toString(int move) {
+        if (move == NONE) {
+            return "0000";
+        }
+        return toChessMove(move).toString();
+    }
+}
@@ -0,0 +1,145 @@
+package chess.engine;
+
+/**
+ * Decides which order a search tries moves in.
+ * <p>
+ * Moves are scored once per node and then picked one at a time, best first, by
+ * selection from the remaining moves. Most nodes are cut off after one or two moves, so
+ * this is cheaper than sorting lists that are mostly never looked at. The order is:
+ * <ol>
+ *     <li>the move the transposition table says was best here before</li>
+ *     <li>captures and promotions, most valuable victim first and, for the same victim,
+ *     least valuable attacker first (MVV-LVA)</li>
+ *     <li>two killer moves per ply, quiet moves that recently caused a cutoff at the
+ *     same ply elsewhere in the tree</li>
+ *     <li>other quiet moves, by a butterfly history of how often each from-square and
+ *     to-square pair has caused a cutoff</li>
+ * </ol>
+ * Killers and history are learned during a search, so each search thread keeps its own
+ * picker.
+ */
+class MovePicker {
+
+    private static final int HASH_MOVE = 3_000_000;
+    private static final int TACTICAL = 2_000_000;
+    private static final int FIRST_KILLER = 1_900_000;
+    private static final int SECOND_KILLER = 1_800_000;
+    private static final int HISTORY_LIMIT = 1_000_000;
+
+    private final int[][] killers = new int[Search.MAX_PLY + 1][2];
+    private final int[][] history = new int[2][64 * 64];
+
+    /**
+     * Scores the moves in {@code moves[start, end)} into the same places in {@code scores}
+     *
+     * @param hashMove the transposition table's move's squares and promotion, or
+     *                 {@link Move#NONE}
+     */
+    void score(Position position, int[] moves, int[] scores, int start, int end, int hashMove, int ply) {
+        int[] history = this.history[position.sideToMove()];
+        int firstKiller = killers[ply][0];
+        int secondKiller = killers[ply][1];
+        for (int i = start; i < end; i++) {
+            int move = moves[i];
+            if (hashMove != Move.NONE && Move.squaresAndPromotion(move) == hashMove) {
+                scores[i] = HASH_MOVE;
+            } else if (Move.isTactical(move)) {
+                scores[i] = TACTICAL + mvvLva(position, move);
+            } else if (move == firstKiller) {
+                scores[i] = FIRST_KILLER;
+            } else if (move == secondKiller) {
+                scores[i] = SECOND_KILLER;
+            } else {
+                scores[i] = history[butterfly(move)];
+            }
+        }
+    }
+
+    /**
+     * Swaps the best scored move left in {@code [index, end)} into {@code index}
+     *
+     * @return the move now at {@code index}
+     */
+    static int pick(int[] moves, int[] scores, int index, int end) {
+        int best = index;
+        for (int i = index + 1; i < end; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            int move = moves[best];
+            moves[best] = moves[index];
+            moves[index] = move;
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves[index];
+    }
+
+    /**
+     * Mixes up the order of the quiet moves other than the killers, differently for each
+     * seed, so helper searches start down different lines from the main search
+     */
+    void shuffleQuiets(int[] moves, int[] scores, int start, int end, int seed) {
+        for (int i = start; i < end; i++) {
+            if (scores[i] < SECOND_KILLER) {
+                // Up to half the history limit, so shuffled quiet moves still come after the killers
+                scores[i] += (Move.squaresAndPromotion(moves[i]) * 0x9E3779B9 ^ seed * 0x85EBCA6B) >>> 13;
+            }
+        }
+    }
+
+    /**
+     * Learns from a quiet move that caused a beta cutoff
+     */
+    void cutoff(Position position, int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] history = this.history[position.sideToMove()];
+        int index = butterfly(move);
+        history[index] += depth * depth;
+        if (history[index] >= HISTORY_LIMIT) {
+            // Halving everything keeps the order while making room, and lets old lessons fade
+            for (int[] side : this.history) {
+                for (int i = 0; i < side.length; i++) {
+                    side[i] /= 2;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets the killers, which only make sense in the tree they were found in, and
+     * weakens the history
+     */
+    void newSearch() {
+        for (int[] ply : killers) {
+            ply[0] = Move.NONE;
+            ply[1] = Move.NONE;
+        }
+        for (int[] side : history) {
+            for (int i = 0; i < side.length; i++) {
+                side[i] /= 8;
+            }
+        }
+    }
+
+    /**
+     * @return a score that puts more valuable victims first, then cheaper attackers
+     */
+    static int mvvLva(Position position, int move) {
+        int victim = Move.isCapture(move)
+                ? (move & Move.EN_PASSANT) != 0 ? Piece.PAWN : Piece.type(position.pieceAt(Move.to(move)))
+                : Piece.NONE;
+        int attacker = Piece.type(position.pieceAt(Move.from(move)));
+        return (victim + Move.promotion(move)) * 8 - attacker;
+    }
+
+    private static int butterfly(int move) {
+        return Move.from(move) << 6 | Move.to(move);
+    }
+}
@@ -0,0 +1,177 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * A Polyglot {@code .bin} opening book.
+ * <p>
+ * The file is a list of 16-byte big-endian entries, each a position key (see
+ * {@link PolyglotKeys}), a move, a weight and four bytes of learning data, sorted by key.
+ * The file is memory-mapped rather than read, so a large book costs no heap and
+ * opens instantly; a lookup is a binary search for the first entry with the position's
+ * key, followed by a scan of the entries after it with the same key. Moves the book
+ * lists that are not legal in the position, as happens with hash collisions, are left
+ * out.
+ * <p>
+ * A book can be used from any number of threads at once.
+ */
+public class OpeningBook {
+
+    /**
+     * A move the book suggests
+     *
+     * @param move   the move
+     * @param weight how often the book's author wants it played, relative to the other moves
+     */
+    public record BookMove(ChessMove move, int weight) {
+    }
+
+    private static final int ENTRY_BYTES = 16;
+
+    private final ByteBuffer entries;
+    private final int size;
+    private final PolyglotKeys keys;
+
+    private OpeningBook(ByteBuffer entries, PolyglotKeys keys) {
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_BYTES;
+        this.keys = keys;
+    }
+
+    /**
+     * Opens a book keyed with the given table, which for published books is the Polyglot
+     * {@code Random64} table (see {@link PolyglotKeys#load(Path)})
+     *
+     * @throws IOException if the file cannot be read or is not a Polyglot book
+     */
+    public static OpeningBook open(Path file, PolyglotKeys keys) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length % ENTRY_BYTES != 0 || length > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a Polyglot book: " + length + " bytes");
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return new OpeningBook(mapped, keys);
+        }
+    }
+
+    /**
+     * @return how many entries the book has
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the legal moves the book has for a game's current position, in the book's
+     * order, which is usually by weight, highest first
+     */
+    public List<BookMove> moves(ChessGame game) {
+        return moves(Position.of(game));
+    }
+
+    /**
+     * @return the legal moves the book has for a position
+     */
+    public List<BookMove> moves(Position position) {
+        long key = keys.key(position);
+        List<BookMove> found = new ArrayList<>();
+        int[] legal = new int[Position.MAX_MOVES];
+        int legalCount = position.generateLegalMoves(legal, 0);
+        for (int i = firstEntry(key); i < size && entries.getLong(i * ENTRY_BYTES) == key; i++) {
+            int move = decode(position, entries.getShort(i * ENTRY_BYTES + 8) & 0xFFFF, legal, legalCount);
+            int weight = entries.getShort(i * ENTRY_BYTES + 10) & 0xFFFF;
+            if (move != Move.NONE && weight > 0) {
+                found.add(new BookMove(Move.toChessMove(move), weight));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Picks one of the book's moves for a game, each with a chance in proportion to its weight
+     *
+     * @return the move, or null if the book has nothing for the position
+     */
+    public ChessMove pick(ChessGame game, RandomGenerator random) {
+        return pick(Position.of(game), random);
+    }
+
+    /**
+     * Picks one of the book's moves for a position, each with a chance in proportion to its weight
+     *
+     * @return the move, or null if the book has nothing for the position
+     */
+    public ChessMove pick(Position position, RandomGenerator random) {
+        List<BookMove> moves = moves(position);
+        int total = 0;
+        for (BookMove move : moves) {
+            total += move.weight();
+        }
+        if (total == 0) {
+            return null;
+        }
+        int choice = random.nextInt(total);
+        for (BookMove move : moves) {
+            choice -= move.weight();
+            if (choice < 0) {
+                return move.move();
+            }
+        }
+        throw new AssertionError("weights changed while picking");
+    }
+
+    /**
+     * @return the index of the first entry with the key, or of the first entry after where
+     * it would be
+     */
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            // Keys are sorted as unsigned numbers
+            if (Long.compareUnsigned(entries.getLong(middle * ENTRY_BYTES), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Turns a Polyglot move into the matching legal move. Polyglot writes castling as the
+     * king taking its own rook, and promotions as 1 to 4 for knight to queen.
+     *
+     * @return the legal move, or {@link Move#NONE} if there is none
+     */
+    private static int decode(Position position, int bookMove, int[] legal, int legalCount) {
+        int to = (bookMove >>> 3 & 7) * 8 + (bookMove & 7);
+        int from = (bookMove >>> 9 & 7) * 8 + (bookMove >>> 6 & 7);
+        int promotion = bookMove >>> 12 & 7;
+        if (Piece.type(position.pieceAt(from)) == Piece.KING && Piece.type(position.pieceAt(to)) == Piece.ROOK &&
+                Piece.color(position.pieceAt(to)) == Piece.color(position.pieceAt(from))) {
+            to = to > from ? from + 2 : from - 2;
+        }
+        int wanted = Move.squaresAndPromotion(Move.make(from, to, promotion == 0 ? Piece.NONE : promotion + 1, 0));
+        for (int i = 0; i < legalCount; i++) {
+            if (Move.squaresAndPromotion(legal[i]) == wanted) {
+                return legal[i];
+            }
+        }
+        return Move.NONE;
+    }
+}
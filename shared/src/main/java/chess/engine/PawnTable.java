@@ -0,0 +1,165 @@
+package chess.engine;
+
+/**
+ * Caches the pawn structure part of the evaluation, keyed by {@link Position#pawnKey()}.
+ * <p>
+ * Doubled, isolated, protected and passed pawns only depend on where the pawns are, and
+ * the pawns rarely move compared with everything else, so nearly every lookup finds the
+ * structure already scored. Each entry keeps the middlegame and endgame scores and which
+ * pawns are passed, for evaluation terms that also depend on the other pieces. A table
+ * belongs to one search thread; it is not safe to share.
+ */
+class PawnTable {
+
+    private static final int[] PASSED_MIDDLEGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 60, 95, 140, 0};
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -12;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int PROTECTED_MIDDLEGAME = 8;
+    private static final int PROTECTED_ENDGAME = 10;
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    // The squares in front of a pawn on its own and the adjacent files, by color and square
+    private static final long[][] PASSED_SPANS = new long[2][64];
+    // The squares in front of a pawn on its own file, by color and square
+    private static final long[][] PATHS = new long[2][64];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            FILES[file] = 0x0101010101010101L << file;
+        }
+        for (int file = 0; file < 8; file++) {
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0) | (file < 7 ? FILES[file + 1] : 0);
+        }
+        for (int square = 0; square < 64; square++) {
+            long whiteAhead = square < 56 ? -1L << (square / 8 + 1) * 8 : 0;
+            long blackAhead = (1L << square / 8 * 8) - 1;
+            long files = FILES[square % 8] | ADJACENT_FILES[square % 8];
+            PASSED_SPANS[Piece.WHITE][square] = whiteAhead & files;
+            PASSED_SPANS[Piece.BLACK][square] = blackAhead & files;
+            PATHS[Piece.WHITE][square] = whiteAhead & FILES[square % 8];
+            PATHS[Piece.BLACK][square] = blackAhead & FILES[square % 8];
+        }
+    }
+
+    // An empty slot has key 0, which is also the key of a board with no pawns, and its
+    // zero scores and passed pawns are right for that board
+    private final long[] keys;
+    private final int[] middlegame;
+    private final int[] endgame;
+    private final long[] passed;
+    private final int indexMask;
+    private long probes;
+    private long hits;
+
+    /**
+     * @param entries how many structures to keep; rounded down to a power of two
+     */
+    PawnTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(entries, 1));
+        this.keys = new long[size];
+        this.middlegame = new int[size];
+        this.endgame = new int[size];
+        this.passed = new long[size];
+        this.indexMask = size - 1;
+    }
+
+    /**
+     * Finds a position's pawn structure, scoring it first if it is not in the table
+     *
+     * @return the slot to read the structure's scores from
+     */
+    int probe(Position position) {
+        long key = position.pawnKey();
+        int slot = (int) key & indexMask;
+        probes++;
+        if (keys[slot] == key) {
+            hits++;
+            return slot;
+        }
+        keys[slot] = key;
+        score(slot, position.pieces(Piece.make(Piece.WHITE, Piece.PAWN)),
+                position.pieces(Piece.make(Piece.BLACK, Piece.PAWN)));
+        return slot;
+    }
+
+    /**
+     * @return White's pawn structure score minus Black's, with middlegame values
+     */
+    int middlegame(int slot) {
+        return middlegame[slot];
+    }
+
+    /**
+     * @return White's pawn structure score minus Black's, with endgame values
+     */
+    int endgame(int slot) {
+        return endgame[slot];
+    }
+
+    /**
+     * @return the passed pawns of both colors, as a bitboard
+     */
+    long passed(int slot) {
+        return passed[slot];
+    }
+
+    /**
+     * @return the fraction of lookups that found the structure already scored
+     */
+    double hitRate() {
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    /**
+     * @return the squares a pawn still has to cross to promote
+     */
+    static long path(int color, int square) {
+        return PATHS[color][square];
+    }
+
+    private void score(int slot, long whitePawns, long blackPawns) {
+        int middlegameScore = 0;
+        int endgameScore = 0;
+        long passedPawns = 0;
+        for (int color = Piece.WHITE; color <= Piece.BLACK; color++) {
+            long own = color == Piece.WHITE ? whitePawns : blackPawns;
+            long enemy = color == Piece.WHITE ? blackPawns : whitePawns;
+            int sign = color == Piece.WHITE ? 1 : -1;
+            // Pawns defending a square from diagonally behind it
+            long defended = color == Piece.WHITE
+                    ? (own << 7 & ~FILES[7]) | (own << 9 & ~FILES[0])
+                    : (own >>> 9 & ~FILES[7]) | (own >>> 7 & ~FILES[0]);
+            for (int file = 0; file < 8; file++) {
+                int onFile = Long.bitCount(own & FILES[file]);
+                if (onFile > 1) {
+                    middlegameScore += sign * (onFile - 1) * DOUBLED_MIDDLEGAME;
+                    endgameScore += sign * (onFile - 1) * DOUBLED_ENDGAME;
+                }
+                if (onFile > 0 && (own & ADJACENT_FILES[file]) == 0) {
+                    middlegameScore += sign * onFile * ISOLATED_MIDDLEGAME;
+                    endgameScore += sign * onFile * ISOLATED_ENDGAME;
+                }
+            }
+            int protectedPawns = Long.bitCount(own & defended);
+            middlegameScore += sign * protectedPawns * PROTECTED_MIDDLEGAME;
+            endgameScore += sign * protectedPawns * PROTECTED_ENDGAME;
+            for (long bits = own; bits != 0; bits &= bits - 1) {
+                int square = Long.numberOfTrailingZeros(bits);
+                // Only the frontmost of doubled pawns counts as passed
+                if ((PASSED_SPANS[color][square] & enemy) == 0 && (PATHS[color][square] & own) == 0) {
+                    int rank = color == Piece.WHITE ? square / 8 : 7 - square / 8;
+                    middlegameScore += sign * PASSED_MIDDLEGAME[rank];
+                    endgameScore += sign * PASSED_ENDGAME[rank];
+                    passedPawns |= 1L << square;
+                }
+            }
+        }
+        middlegame[slot] = middlegameScore;
+        endgame[slot] = endgameScore;
+        passed[slot] = passedPawns;
+    }
+}
@@ -0,0 +1,88 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Pieces as small ints: the low three bits are the type and bit 3 is the color, so a
+ * piece code also works as an index into arrays of 16.
+ */
+public final class Piece {
+
+    public static final int NONE = 0;
+    public static final int PAWN = 1;
+    public static final int KNIGHT = 2;
+    public static final int BISHOP = 3;
+    public static final int ROOK = 4;
+    public static final int QUEEN = 5;
+    public static final int KING = 6;
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    private static final String SYMBOLS = " pnbrqk";
+
+    private Piece() {
+    }
+
+    public static int make(int color, int type) {
+        return color << 3 | type;
+    }
+
+    public static int type(int piece) {
+        return piece & 7;
+    }
+
+    public static int color(int piece) {
+        return piece >> 3;
+    }
+
+    /**
+     * @return the piece for a FEN letter, upper case for white
+     */
+    public static int fromSymbol(char symbol) {
+        int type = SYMBOLS.indexOf(Character.toLowerCase(symbol));
+        if (type <= 0) {
+            throw new IllegalArgumentException("Unknown piece: " + symbol);
+        }
+        return make(Character.isUpperCase(symbol) ? WHITE : BLACK, type);
+    }
+
+    /**
+     * @return the FEN letter for a piece, upper case for white
+     */
+    public static char symbol(int piece) {
+        char symbol = SYMBOLS.charAt(type(piece));
+        return color(piece) == WHITE ? Character.toUpperCase(symbol) : symbol;
+    }
+
+    public static ChessPiece.PieceType toPieceType(int type) {
+        return switch (type) {
+            case PAWN -> ChessPiece.PieceType.PAWN;
+            case KNIGHT -> ChessPiece.PieceType.KNIGHT;
+            case BISHOP -> ChessPiece.PieceType.BISHOP;
+            case ROOK -> ChessPiece.PieceType.ROOK;
+            case QUEEN -> ChessPiece.PieceType.QUEEN;
+            case KING -> ChessPiece.PieceType.KING;
+            default -> null;
+        };
+    }
+
+    public static int fromPieceType(ChessPiece.PieceType type) {
+        if (type == null) {
+            return NONE;
+        }
+        return switch (type) {
+            case PAWN -> PAWN;
+            case KNIGHT -> KNIGHT;
+            case BISHOP -> BISHOP;
+            case ROOK -> ROOK;
+            case QUEEN -> QUEEN;
+            case KING -> KING;
+        };
+    }
+
+    public static int fromTeamColor(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? WHITE : BLACK;
+    }
+}
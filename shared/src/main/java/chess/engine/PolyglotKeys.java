@@ -0,0 +1,114 @@
+package chess.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Hashes positions the way Polyglot opening books are keyed.
+ * <p>
+ * A Polyglot key is the XOR of entries from a fixed table of 781 random numbers: one per
+ * piece kind and square, four for castling rights, eight for the en passant file and one
+ * for White to move. En passant only counts when a pawn of the side to move could
+ * actually make the capture. Books only work with the table they were built with, which
+ * for every published book is the {@code Random64} table from the Polyglot source. That
+ * table is not bundled, so load a copy of it with {@link #load(Path)}.
+ * <p>
+ * The table is read as 781 hexadecimal numbers, one per line, with blank lines and lines
+ * starting with {@code #} ignored.
+ */
+public final class PolyglotKeys {
+
+    public static final int TABLE_SIZE = 781;
+
+    private static final int CASTLING = 768;
+    private static final int EN_PASSANT = 772;
+    private static final int TURN = 780;
+
+    private final long[] random;
+
+    /**
+     * @param random the 781 numbers keys are made from
+     */
+    public PolyglotKeys(long[] random) {
+        if (random.length != TABLE_SIZE) {
+            throw new IllegalArgumentException("Polyglot key table needs " + TABLE_SIZE + " entries, not " + random.length);
+        }
+        this.random = random.clone();
+    }
+
+    /**
+     * @return the keys in a table file
+     */
+    public static PolyglotKeys load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            return read(reader);
+        }
+    }
+
+    private static PolyglotKeys read(Reader source) throws IOException {
+        long[] random = new long[TABLE_SIZE];
+        int count = 0;
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (count == TABLE_SIZE) {
+                throw new IOException("Polyglot key table has more than " + TABLE_SIZE + " entries");
+            }
+            random[count++] = Long.parseUnsignedLong(line.startsWith("0x") ? line.substring(2) : line, 16);
+        }
+        if (count != TABLE_SIZE) {
+            throw new IOException("Polyglot key table has " + count + " entries, needs " + TABLE_SIZE);
+        }
+        return new PolyglotKeys(random);
+    }
+
+    public long key(Position position) {
+        long key = 0;
+        for (int square = 0; square < 64; square++) {
+            int piece = position.pieceAt(square);
+            if (piece != Piece.NONE) {
+                // Black pawn, white pawn, black knight, white knight and so on
+                int kind = (Piece.type(piece) - 1) * 2 + (Piece.color(piece) == Piece.WHITE ? 1 : 0);
+                key ^= random[64 * kind + square];
+            }
+        }
+        int castling = position.castlingRights();
+        if ((castling & Position.WHITE_KINGSIDE) != 0) {
+            key ^= random[CASTLING];
+        }
+        if ((castling & Position.WHITE_QUEENSIDE) != 0) {
+            key ^= random[CASTLING + 1];
+        }
+        if ((castling & Position.BLACK_KINGSIDE) != 0) {
+            key ^= random[CASTLING + 2];
+        }
+        if ((castling & Position.BLACK_QUEENSIDE) != 0) {
+            key ^= random[CASTLING + 3];
+        }
+        int enPassant = position.enPassantSquare();
+        if (enPassant >= 0 && canCaptureEnPassant(position, enPassant)) {
+            key ^= random[EN_PASSANT + enPassant % 8];
+        }
+        if (position.sideToMove() == Piece.WHITE) {
+            key ^= random[TURN];
+        }
+        return key;
+    }
+
+    private static boolean canCaptureEnPassant(Position position, int target) {
+        int us = position.sideToMove();
+        int pawnRow = target / 8 + (us == Piece.WHITE ? -1 : 1);
+        int file = target % 8;
+        int pawn = Piece.make(us, Piece.PAWN);
+        return file > 0 && position.pieceAt(pawnRow * 8 + file - 1) == pawn ||
+                file < 7 && position.pieceAt(pawnRow * 8 + file + 1) == pawn;
+    }
+}
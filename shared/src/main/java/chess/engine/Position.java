@@ -0,0 +1,835 @@
+package chess.engine;
+
+import chess.AttackTables;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.ConcurrentChessGame;
+import chess.Fen;
+import chess.Zobrist;
+
+import java.util.Arrays;
+
+/**
+ * A chess position built for searching: pieces are ints on a 64-square array with a
+ * bitboard per piece kept alongside, moves are packed ints (see {@link Move}), and a
+ * move is made and taken back in place without allocating.
+ * <p>
+ * Squares are numbered as in {@link AttackTables}. Move generation is pseudo-legal;
+ * {@link #makeMove(int)} takes back and rejects a move that leaves the mover's king in
+ * check.
+ */
+public class Position {
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    /**
+     * More moves than any chess position has
+     */
+    public static final int MAX_MOVES = 256;
+
+    private static final int[][] DIRECTIONS = {
+            {1, 0}, {-1, 0}, {0, 1}, {0, -1},
+            {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+    private static final int FIRST_DIAGONAL = 4;
+
+    // RAYS[direction][square] lists the squares from next to the square out to the edge
+    private static final int[][][] RAYS = new int[8][64][];
+    // Castling rights kept when a move starts or ends on a square
+    private static final int[] CASTLING_MASK = new int[64];
+    // The king is worth more than everything else together, so exchanges never give it up
+    private static final int[] EXCHANGE_VALUES = {0, 100, 320, 330, 500, 900, 20_000};
+
+    // The same keys as chess.Zobrist, laid out for this class's piece and square numbers,
+    // so a position's key matches the key of the game it came from
+    private static final long[][] PIECE_KEYS = new long[16][64];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long SIDE_KEY;
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int row = square / 8;
+            int col = square % 8;
+            for (int d = 0; d < 8; d++) {
+                int length = 0;
+                int[] ray = new int[7];
+                for (int r = row + DIRECTIONS[d][0], c = col + DIRECTIONS[d][1];
+                     r >= 0 && r < 8 && c >= 0 && c < 8; r += DIRECTIONS[d][0], c += DIRECTIONS[d][1]) {
+                    ray[length++] = r * 8 + c;
+                }
+                RAYS[d][square] = Arrays.copyOf(ray, length);
+            }
+        }
+
+        Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASK[63] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+
+        for (int color : new int[]{Piece.WHITE, Piece.BLACK}) {
+            for (int type = Piece.PAWN; type <= Piece.KING; type++) {
+                var piece = new ChessPiece(color == Piece.WHITE ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK,
+                        Piece.toPieceType(type));
+                for (int square = 0; square < 64; square++) {
+                    PIECE_KEYS[Piece.make(color, type)][square] = Zobrist.pieceKey(piece, square / 8 + 1, square % 8 + 1);
+                }
+            }
+        }
+        // Castling rights use the same bits as ChessGame
+        long whiteToMove = Zobrist.stateKey(ChessGame.TeamColor.WHITE, 0, null);
+        for (int rights = 0; rights < 16; rights++) {
+            CASTLING_KEYS[rights] = Zobrist.stateKey(ChessGame.TeamColor.WHITE, rights, null);
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_KEYS[file] = Zobrist.stateKey(ChessGame.TeamColor.WHITE, 0, new ChessPosition(3, file + 1)) ^
+                    whiteToMove;
+        }
+        SIDE_KEY = Zobrist.stateKey(ChessGame.TeamColor.BLACK, 0, null) ^ whiteToMove;
+    }
+
+    private final int[] board = new int[64];
+    private final long[] pieces = new long[16];
+    private final long[] occupancy = new long[2];
+    private final int[] kingSquare = {-1, -1};
+    private int sideToMove;
+    private int castlingRights;
+    private int enPassantSquare = -1;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private long key;
+    private long pawnKey;
+    // Kept up to date by put and remove, for the evaluation
+    private int middlegame;
+    private int endgame;
+    private int phase;
+
+    // One entry per move made: the key before it, and what the move destroyed
+    private long[] keyHistory = new long[256];
+    private long[] undoHistory = new long[256];
+    private int historyLength;
+    private final int[] exchangeGains = new int[32];
+
+    private Position() {
+    }
+
+    /**
+     * @return the position described by a FEN string
+     * @throws IllegalArgumentException if the string is not valid FEN (see {@link Fen#parse(String)})
+     *                                  or either side does not have exactly one king
+     */
+    public static Position fromFen(String fen) {
+        return of(Fen.parse(fen));
+    }
+
+    /**
+     * @return the position a game is in
+     * @throws IllegalArgumentException if either side does not have exactly one king
+     */
+    public static Position of(ChessGame game) {
+        if (game instanceof ConcurrentChessGame concurrent) {
+            game = concurrent.snapshot(); // read the board and the rest of the state together
+        }
+        Position position = new Position();
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(new ChessPosition(square / 8 + 1, square % 8 + 1));
+            if (piece == null) {
+                continue;
+            }
+            int color = Piece.fromTeamColor(piece.getTeamColor());
+            if (piece.getPieceType() == ChessPiece.PieceType.KING && position.kingSquare[color] >= 0) {
+                throw new IllegalArgumentException("More than one " + piece.getTeamColor() + " king");
+            }
+            position.put(square, Piece.make(color, Piece.fromPieceType(piece.getPieceType())));
+        }
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            if (position.kingSquare[Piece.fromTeamColor(color)] < 0) {
+                throw new IllegalArgumentException("No " + color + " king");
+            }
+        }
+        position.sideToMove = Piece.fromTeamColor(game.getTeamTurn());
+        position.castlingRights = game.castlingRights();
+        ChessPosition enPassantTarget = game.enPassantTarget();
+        if (enPassantTarget != null) {
+            position.enPassantSquare = AttackTables.square(enPassantTarget);
+        }
+        position.halfmoveClock = game.halfmoveClock();
+        position.fullmoveNumber = game.plyCount() / 2 + 1;
+        position.key = position.computeKey();
+        return position;
+    }
+
+    /**
+     * @return an independent copy of this position, without its move history
+     */
+    public Position copy() {
+        Position copy = new Position();
+        System.arraycopy(board, 0, copy.board, 0, 64);
+        System.arraycopy(pieces, 0, copy.pieces, 0, 16);
+        System.arraycopy(occupancy, 0, copy.occupancy, 0, 2);
+        System.arraycopy(kingSquare, 0, copy.kingSquare, 0, 2);
+        copy.sideToMove = sideToMove;
+        copy.castlingRights = castlingRights;
+        copy.enPassantSquare = enPassantSquare;
+        copy.halfmoveClock = halfmoveClock;
+        copy.fullmoveNumber = fullmoveNumber;
+        copy.key = key;
+        copy.pawnKey = pawnKey;
+        copy.middlegame = middlegame;
+        copy.endgame = endgame;
+        copy.phase = phase;
+        return copy;
+    }
+
+    public int pieceAt(int square) {
+        return board[square];
+    }
+
+    public int sideToMove() {
+        return sideToMove;
+    }
+
+    public long key() {
+        return key;
+    }
+
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the squares holding a given piece, as a bitboard
+     */
+    public long pieces(int piece) {
+        return pieces[piece];
+    }
+
+    /**
+     * @return the squares holding a team's pieces, as a bitboard
+     */
+    public long occupancy(int color) {
+        return occupancy[color];
+    }
+
+    public int kingSquare(int color) {
+        return kingSquare[color];
+    }
+
+    /**
+     * @return which castling moves are still allowed, as {@link #WHITE_KINGSIDE} and so on
+     */
+    public int castlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return the square a pawn that just moved two squares skipped over, or -1
+     */
+    public int enPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * @return a Zobrist key of the pawns alone, for {@link PawnTable}
+     */
+    public long pawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * @return White's material and piece-square score minus Black's, with middlegame values
+     */
+    public int middlegameScore() {
+        return middlegame;
+    }
+
+    /**
+     * @return White's material and piece-square score minus Black's, with endgame values
+     */
+    public int endgameScore() {
+        return endgame;
+    }
+
+    /**
+     * @return how much material is left, from {@link Evaluator#MAX_PHASE} at the start
+     * down to 0 with only kings and pawns; can go above the maximum after promotions
+     */
+    public int phase() {
+        return phase;
+    }
+
+    /**
+     * @return the squares the piece on a square attacks, as a bitboard
+     */
+    public long attacks(int square) {
+        int piece = board[square];
+        return switch (Piece.type(piece)) {
+            case Piece.PAWN -> pawnAttacks(Piece.color(piece), square);
+            case Piece.KNIGHT -> AttackTables.knightAttacks(square);
+            case Piece.BISHOP -> sliderAttacks(square, FIRST_DIAGONAL, 8);
+            case Piece.ROOK -> sliderAttacks(square, 0, FIRST_DIAGONAL);
+            case Piece.QUEEN -> sliderAttacks(square, 0, 8);
+            case Piece.KING -> AttackTables.kingAttacks(square);
+            default -> 0;
+        };
+    }
+
+    private long sliderAttacks(int square, int firstDirection, int lastDirection) {
+        long attacks = 0;
+        for (int d = firstDirection; d < lastDirection; d++) {
+            for (int target : RAYS[d][square]) {
+                attacks |= 1L << target;
+                if (board[target] != Piece.NONE) {
+                    break;
+                }
+            }
+        }
+        return attacks;
+    }
+
+    public boolean inCheck() {
+        return isAttacked(kingSquare[sideToMove], sideToMove ^ 1);
+    }
+
+    /**
+     * @return true if the position has come up before since the last capture or pawn move
+     */
+    public boolean isRepetition() {
+        int earliest = Math.max(0, historyLength - halfmoveClock);
+        for (int i = historyLength - 2; i >= earliest; i -= 2) {
+            if (keyHistory[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if a piece of the given team attacks the square
+     */
+    public boolean isAttacked(int square, int attacker) {
+        if ((AttackTables.knightAttacks(square) & pieces[Piece.make(attacker, Piece.KNIGHT)]) != 0 ||
+                (AttackTables.kingAttacks(square) & pieces[Piece.make(attacker, Piece.KING)]) != 0 ||
+                (pawnAttacks(attacker ^ 1, square) & pieces[Piece.make(attacker, Piece.PAWN)]) != 0) {
+            return true;
+        }
+        int queen = Piece.make(attacker, Piece.QUEEN);
+        int rook = Piece.make(attacker, Piece.ROOK);
+        int bishop = Piece.make(attacker, Piece.BISHOP);
+        for (int d = 0; d < 8; d++) {
+            int slider = d < FIRST_DIAGONAL ? rook : bishop;
+            for (int target : RAYS[d][square]) {
+                int piece = board[target];
+                if (piece != Piece.NONE) {
+                    if (piece == slider || piece == queen) {
+                        return true;
+                    }
+                    break;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Works out what a capture wins or loses if both sides keep recapturing on the target
+     * square with their least valuable piece, each stopping when going on would lose more.
+     * Pins and checks are ignored.
+     *
+     * @return the material the side to move gains, in centipawns; negative for a losing
+     * capture
+     */
+    public int staticExchange(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        long occupied = occupancy[Piece.WHITE] | occupancy[Piece.BLACK];
+        int[] gain = exchangeGains;
+        int depth = 0;
+        int captured;
+        if ((move & Move.EN_PASSANT) != 0) {
+            captured = Piece.PAWN;
+            occupied ^= AttackTables.bit(to + (sideToMove == Piece.WHITE ? -8 : 8));
+        } else {
+            captured = Piece.type(board[to]);
+        }
+        gain[0] = EXCHANGE_VALUES[captured];
+        int onSquare = Piece.type(board[from]);
+        if (Move.promotion(move) != Piece.NONE) {
+            onSquare = Move.promotion(move);
+            gain[0] += EXCHANGE_VALUES[onSquare] - EXCHANGE_VALUES[Piece.PAWN];
+        }
+        long attackerBit = AttackTables.bit(from);
+        int side = sideToMove;
+        do {
+            depth++;
+            // What the side to recapture would have if it took the piece now on the square
+            gain[depth] = EXCHANGE_VALUES[onSquare] - gain[depth - 1];
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0 || depth == gain.length - 1) {
+                break; // neither side would want to carry on
+            }
+            occupied ^= attackerBit;
+            side ^= 1;
+            long attackers = attackersTo(to, occupied) & occupancy[side];
+            attackerBit = 0;
+            for (int type = Piece.PAWN; type <= Piece.KING; type++) {
+                long candidates = attackers & pieces[Piece.make(side, type)];
+                if (candidates != 0) {
+                    attackerBit = candidates & -candidates;
+                    onSquare = type;
+                    break;
+                }
+            }
+        } while (attackerBit != 0);
+        while (--depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+
+    /**
+     * @return every piece on an occupied square that attacks the square, treating squares
+     * missing from {@code occupied} as empty so pieces behind them are seen
+     */
+    private long attackersTo(int square, long occupied) {
+        long attackers = AttackTables.knightAttacks(square) &
+                (pieces[Piece.make(Piece.WHITE, Piece.KNIGHT)] | pieces[Piece.make(Piece.BLACK, Piece.KNIGHT)]);
+        attackers |= AttackTables.kingAttacks(square) &
+                (pieces[Piece.make(Piece.WHITE, Piece.KING)] | pieces[Piece.make(Piece.BLACK, Piece.KING)]);
+        attackers |= pawnAttacks(Piece.BLACK, square) & pieces[Piece.make(Piece.WHITE, Piece.PAWN)];
+        attackers |= pawnAttacks(Piece.WHITE, square) & pieces[Piece.make(Piece.BLACK, Piece.PAWN)];
+        for (int d = 0; d < 8; d++) {
+            int slider = d < FIRST_DIAGONAL ? Piece.ROOK : Piece.BISHOP;
+            for (int target : RAYS[d][square]) {
+                if ((occupied & AttackTables.bit(target)) != 0) {
+                    int type = Piece.type(board[target]);
+                    if (type == slider || type == Piece.QUEEN) {
+                        attackers |= AttackTables.bit(target);
+                    }
+                    break;
+                }
+            }
+        }
+        return attackers & occupied;
+    }
+
+    /**
+     * Writes every pseudo-legal move into an array
+     *
+     * @param moves where to write the moves
+     * @param start the first index to write to
+     * @return the index after the last move written
+     */
+    public int generateMoves(int[] moves, int start) {
+        return generate(moves, start, false);
+    }
+
+    /**
+     * Writes the pseudo-legal captures and promotions into an array
+     *
+     * @return the index after the last move written
+     */
+    public int generateTactical(int[] moves, int start) {
+        return generate(moves, start, true);
+    }
+
+    /**
+     * Writes every legal move into an array
+     *
+     * @return the index after the last move written
+     */
+    public int generateLegalMoves(int[] moves, int start) {
+        int end = generateMoves(moves, start);
+        int count = start;
+        for (int i = start; i < end; i++) {
+            if (makeMove(moves[i])) {
+                unmakeMove(moves[i]);
+                moves[count++] = moves[i];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of move sequences of the given length from this position
+     */
+    public long perft(int depth) {
+        return perft(depth, new int[(depth + 1) * MAX_MOVES], 0);
+    }
+
+    private long perft(int depth, int[] moves, int start) {
+        if (depth == 0) {
+            return 1;
+        }
+        int end = generateMoves(moves, start);
+        long nodes = 0;
+        for (int i = start; i < end; i++) {
+            if (makeMove(moves[i])) {
+                nodes += depth == 1 ? 1 : perft(depth - 1, moves, end);
+                unmakeMove(moves[i]);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Makes a move if it is legal
+     *
+     * @param move a pseudo-legal move from {@link #generateMoves(int[], int)}
+     * @return false, with the position unchanged, if the move would leave the mover in check
+     */
+    public boolean makeMove(int move) {
+        int us = sideToMove;
+        int them = us ^ 1;
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = board[from];
+        int captureSquare = (move & Move.EN_PASSANT) != 0 ? to + (us == Piece.WHITE ? -8 : 8) : to;
+        int captured = board[captureSquare];
+
+        pushHistory(captured);
+        if (enPassantSquare >= 0) {
+            key ^= EN_PASSANT_KEYS[enPassantSquare & 7];
+        }
+        key ^= CASTLING_KEYS[castlingRights];
+
+        if (captured != Piece.NONE) {
+            remove(captureSquare);
+        }
+        remove(from);
+        int promotion = Move.promotion(move);
+        put(to, promotion == Piece.NONE ? piece : Piece.make(us, promotion));
+        if ((move & Move.CASTLE) != 0) {
+            int rookFrom = to > from ? to + 1 : to - 2;
+            int rookTo = to > from ? to - 1 : to + 1;
+            put(rookTo, remove(rookFrom));
+        }
+
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        key ^= CASTLING_KEYS[castlingRights];
+        enPassantSquare = (move & Move.DOUBLE_PUSH) != 0 ? (from + to) / 2 : -1;
+        if (enPassantSquare >= 0) {
+            key ^= EN_PASSANT_KEYS[enPassantSquare & 7];
+        }
+        halfmoveClock = Piece.type(piece) == Piece.PAWN || captured != Piece.NONE ? 0 : halfmoveClock + 1;
+        if (us == Piece.BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = them;
+        key ^= SIDE_KEY;
+
+        if (isAttacked(kingSquare[us], them)) {
+            unmakeMove(move);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Takes back the last move made with {@link #makeMove(int)}
+     */
+    public void unmakeMove(int move) {
+        int them = sideToMove;
+        int us = them ^ 1;
+        int from = Move.from(move);
+        int to = Move.to(move);
+
+        historyLength--;
+        long undo = undoHistory[historyLength];
+        int captured = (int) (undo & 15);
+
+        if ((move & Move.CASTLE) != 0) {
+            int rookFrom = to > from ? to + 1 : to - 2;
+            int rookTo = to > from ? to - 1 : to + 1;
+            put(rookFrom, remove(rookTo));
+        }
+        int piece = remove(to);
+        put(from, Move.promotion(move) == Piece.NONE ? piece : Piece.make(us, Piece.PAWN));
+        if (captured != Piece.NONE) {
+            put((move & Move.EN_PASSANT) != 0 ? to + (us == Piece.WHITE ? -8 : 8) : to, captured);
+        }
+
+        castlingRights = (int) (undo >>> 4 & 15);
+        enPassantSquare = (int) (undo >>> 8 & 127) - 1;
+        halfmoveClock = (int) (undo >>> 16);
+        if (us == Piece.BLACK) {
+            fullmoveNumber--;
+        }
+        sideToMove = us;
+        key = keyHistory[historyLength];
+    }
+
+    /**
+     * Passes the turn to the other side without moving, for null move pruning. The side
+     * to move must not be in check. Repetitions are not looked for across a null move.
+     */
+    public void makeNullMove() {
+        pushHistory(Piece.NONE);
+        if (enPassantSquare >= 0) {
+            key ^= EN_PASSANT_KEYS[enPassantSquare & 7];
+            enPassantSquare = -1;
+        }
+        halfmoveClock = 0;
+        sideToMove ^= 1;
+        key ^= SIDE_KEY;
+    }
+
+    /**
+     * Takes back the last {@link #makeNullMove()}
+     */
+    public void unmakeNullMove() {
+        historyLength--;
+        long undo = undoHistory[historyLength];
+        enPassantSquare = (int) (undo >>> 8 & 127) - 1;
+        halfmoveClock = (int) (undo >>> 16);
+        sideToMove ^= 1;
+        key = keyHistory[historyLength];
+    }
+
+    /**
+     * @return true if a team has a piece besides pawns and its king; without one, null
+     * move pruning is unsafe because zugzwang is likely
+     */
+    public boolean hasNonPawnMaterial(int color) {
+        return (occupancy[color] & ~pieces[Piece.make(color, Piece.PAWN)] & ~pieces[Piece.make(color, Piece.KING)]) != 0;
+    }
+
+    private void pushHistory(int captured) {
+        if (historyLength == keyHistory.length) {
+            keyHistory = Arrays.copyOf(keyHistory, historyLength * 2);
+            undoHistory = Arrays.copyOf(undoHistory, historyLength * 2);
+        }
+        keyHistory[historyLength] = key;
+        undoHistory[historyLength] = captured | castlingRights << 4 | (long) (enPassantSquare + 1) << 8 |
+                (long) halfmoveClock << 16;
+        historyLength++;
+    }
+
+    private void put(int square, int piece) {
+        board[square] = piece;
+        pieces[piece] |= 1L << square;
+        occupancy[Piece.color(piece)] |= 1L << square;
+        key ^= PIECE_KEYS[piece][square];
+        if (Piece.type(piece) == Piece.PAWN) {
+            pawnKey ^= PIECE_KEYS[piece][square];
+        }
+        middlegame += Evaluator.MIDDLEGAME[piece][square];
+        endgame += Evaluator.ENDGAME[piece][square];
+        phase += Evaluator.PHASE[piece];
+        if (Piece.type(piece) == Piece.KING) {
+            kingSquare[Piece.color(piece)] = square;
+        }
+    }
+
+    private int remove(int square) {
+        int piece = board[square];
+        board[square] = Piece.NONE;
+        pieces[piece] &= ~(1L << square);
+        occupancy[Piece.color(piece)] &= ~(1L << square);
+        key ^= PIECE_KEYS[piece][square];
+        if (Piece.type(piece) == Piece.PAWN) {
+            pawnKey ^= PIECE_KEYS[piece][square];
+        }
+        middlegame -= Evaluator.MIDDLEGAME[piece][square];
+        endgame -= Evaluator.ENDGAME[piece][square];
+        phase -= Evaluator.PHASE[piece];
+        return piece;
+    }
+
+    private int generate(int[] moves, int count, boolean tacticalOnly) {
+        int us = sideToMove;
+        long own = occupancy[us];
+        long enemy = occupancy[us ^ 1];
+        long targets = tacticalOnly ? enemy : ~own;
+
+        count = generatePawnMoves(moves, count, tacticalOnly);
+        for (long knights = pieces[Piece.make(us, Piece.KNIGHT)]; knights != 0; knights &= knights - 1) {
+            int from = Long.numberOfTrailingZeros(knights);
+            count = addMoves(moves, count, from, AttackTables.knightAttacks(from) & targets, enemy);
+        }
+        int king = kingSquare[us];
+        count = addMoves(moves, count, king, AttackTables.kingAttacks(king) & targets, enemy);
+        count = generateSliderMoves(moves, count, Piece.make(us, Piece.BISHOP), FIRST_DIAGONAL, 8, tacticalOnly);
+        count = generateSliderMoves(moves, count, Piece.make(us, Piece.ROOK), 0, FIRST_DIAGONAL, tacticalOnly);
+        count = generateSliderMoves(moves, count, Piece.make(us, Piece.QUEEN), 0, 8, tacticalOnly);
+        if (!tacticalOnly) {
+            count = generateCastling(moves, count);
+        }
+        return count;
+    }
+
+    private int addMoves(int[] moves, int count, int from, long targets, long enemy) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves[count++] = Move.make(from, to, (enemy & 1L << to) != 0 ? Move.CAPTURE : 0);
+        }
+        return count;
+    }
+
+    private int generateSliderMoves(int[] moves, int count, int piece, int firstDirection, int lastDirection,
+                                    boolean tacticalOnly) {
+        int us = Piece.color(piece);
+        for (long sliders = pieces[piece]; sliders != 0; sliders &= sliders - 1) {
+            int from = Long.numberOfTrailingZeros(sliders);
+            for (int d = firstDirection; d < lastDirection; d++) {
+                for (int to : RAYS[d][from]) {
+                    int target = board[to];
+                    if (target == Piece.NONE) {
+                        if (!tacticalOnly) {
+                            moves[count++] = Move.make(from, to, 0);
+                        }
+                        continue;
+                    }
+                    if (Piece.color(target) != us) {
+                        moves[count++] = Move.make(from, to, Move.CAPTURE);
+                    }
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int generatePawnMoves(int[] moves, int count, boolean tacticalOnly) {
+        int us = sideToMove;
+        int forward = us == Piece.WHITE ? 8 : -8;
+        int startRow = us == Piece.WHITE ? 1 : 6;
+        int lastRow = us == Piece.WHITE ? 7 : 0;
+        long enemy = occupancy[us ^ 1];
+        long empty = ~(occupancy[0] | occupancy[1]);
+
+        for (long pawns = pieces[Piece.make(us, Piece.PAWN)]; pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            int to = from + forward;
+            if ((empty & 1L << to) != 0) {
+                if (to / 8 == lastRow) {
+                    count = addPromotions(moves, count, from, to, 0, tacticalOnly);
+                } else if (!tacticalOnly) {
+                    moves[count++] = Move.make(from, to, 0);
+                    if (from / 8 == startRow && (empty & 1L << (to + forward)) != 0) {
+                        moves[count++] = Move.make(from, to + forward, Move.DOUBLE_PUSH);
+                    }
+                }
+            }
+            long attacks = pawnAttacks(us, from);
+            for (long captures = attacks & enemy; captures != 0; captures &= captures - 1) {
+                int target = Long.numberOfTrailingZeros(captures);
+                if (target / 8 == lastRow) {
+                    count = addPromotions(moves, count, from, target, Move.CAPTURE, false);
+                } else {
+                    moves[count++] = Move.make(from, target, Move.CAPTURE);
+                }
+            }
+            if (enPassantSquare >= 0 && (attacks & 1L << enPassantSquare) != 0) {
+                moves[count++] = Move.make(from, enPassantSquare, Move.CAPTURE | Move.EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    private static int addPromotions(int[] moves, int count, int from, int to, int flags, boolean queenOnly) {
+        moves[count++] = Move.make(from, to, Piece.QUEEN, flags);
+        if (!queenOnly) {
+            moves[count++] = Move.make(from, to, Piece.ROOK, flags);
+            moves[count++] = Move.make(from, to, Piece.BISHOP, flags);
+            moves[count++] = Move.make(from, to, Piece.KNIGHT, flags);
+        }
+        return count;
+    }
+
+    private int generateCastling(int[] moves, int count) {
+        int us = sideToMove;
+        int kingSide = us == Piece.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queenSide = us == Piece.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        if ((castlingRights & (kingSide | queenSide)) == 0) {
+            return count;
+        }
+        int home = us == Piece.WHITE ? 4 : 60;
+        int them = us ^ 1;
+        if (kingSquare[us] != home || isAttacked(home, them)) {
+            return count;
+        }
+        int rook = Piece.make(us, Piece.ROOK);
+        if ((castlingRights & kingSide) != 0 && board[home + 3] == rook &&
+                board[home + 1] == Piece.NONE && board[home + 2] == Piece.NONE && !isAttacked(home + 1, them)) {
+            moves[count++] = Move.make(home, home + 2, Move.CASTLE);
+        }
+        if ((castlingRights & queenSide) != 0 && board[home - 4] == rook && board[home - 1] == Piece.NONE &&
+                board[home - 2] == Piece.NONE && board[home - 3] == Piece.NONE && !isAttacked(home - 1, them)) {
+            moves[count++] = Move.make(home, home - 2, Move.CASTLE);
+        }
+        return count;
+    }
+
+    private static long pawnAttacks(int color, int square) {
+        return AttackTables.pawnAttacks(color == Piece.WHITE ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK,
+                square);
+    }
+
+    private long computeKey() {
+        long computed = 0;
+        for (int square = 0; square < 64; square++) {
+            if (board[square] != Piece.NONE) {
+                computed ^= PIECE_KEYS[board[square]][square];
+            }
+        }
+        computed ^= CASTLING_KEYS[castlingRights];
+        if (enPassantSquare >= 0) {
+            computed ^= EN_PASSANT_KEYS[enPassantSquare & 7];
+        }
+        return sideToMove == Piece.BLACK ? computed ^ SIDE_KEY : computed;
+    }
+
+    /**
+     * @return the position in FEN
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder();
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int piece = board[row * 8 + col];
+                if (piece == Piece.NONE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(Piece.symbol(piece));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row > 0) {
+                fen.append('/');
+            }
+        }
+        fen.append(sideToMove == Piece.WHITE ? " w " : " b ");
+        if (castlingRights == 0) {
+            fen.append('-');
+        } else {
+            if ((castlingRights & WHITE_KINGSIDE) != 0) fen.append('K');
+            if ((castlingRights & WHITE_QUEENSIDE) != 0) fen.append('Q');
+            if ((castlingRights & BLACK_KINGSIDE) != 0) fen.append('k');
+            if ((castlingRights & BLACK_QUEENSIDE) != 0) fen.append('q');
+        }
+        fen.append(' ').append(enPassantSquare < 0 ? "-" : Move.position(enPassantSquare).toString());
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toFen();
+    }
+}
@@ -0,0 +1,498 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Negamax alpha-beta search with iterative deepening.
+ * <p>
+ * Each iteration searches one ply deeper than the last, trying the previous iteration's
+ * best line first and other moves in the order {@link MovePicker} gives. A side in check
+ * at the horizon gets one more ply, and after that a quiescence search plays out captures
+ * so that positions are only evaluated once nothing is hanging. The selective techniques in {@link SearchFeature} prune and reduce
+ * the moves that are unlikely to matter. The principal variation is collected in a
+ * triangular table as the search unwinds. The first iteration always runs to the end, so
+ * there is always a move to play; if the search is stopped part way through a later
+ * iteration, the result of the last completed iteration is used. A search works on its
+ * own {@link Position} and move buffer, and allocates nothing per node.
+ * <p>
+ * With a {@link TranspositionTable}, each node's result is stored, and a position that
+ * has already been searched deeply enough ends the search there. The stored best move is
+ * tried first when a position comes up again.
+ * <p>
+ * Several searches can share one table on different threads (see {@link Engine}). Each
+ * helper starts at a different depth and tries the root moves in a different order, so
+ * the threads spread out over the tree and fill the table with results the others can
+ * use.
+ */
+public class Search {
+
+    public static final int INFINITY = 32_000;
+    public static final int MATE = 31_000;
+    public static final int MAX_PLY = 128;
+
+    private static final int CHECK_INTERVAL = 2048;
+    // Covers what the evaluation can change by besides material, for delta pruning
+    private static final int DELTA_MARGIN = 200;
+    private static final int PAWN_TABLE_ENTRIES = 1 << 14;
+    private static final int ASPIRATION_DEPTH = 4;
+    private static final int ASPIRATION_WINDOW = 30;
+    private static final int NULL_MOVE_DEPTH = 3;
+    private static final int NULL_MOVE_VERIFY_DEPTH = 10;
+    private static final int LMR_DEPTH = 3;
+    private static final int LMR_MOVES = 3;
+    private static final int FUTILITY_DEPTH = 3;
+    private static final int FUTILITY_MARGIN = 120;
+    private static final int RAZOR_MARGIN = 300;
+
+    // How many plies to take off a late move, growing with both the depth and how late the move is
+    private static final int[][] REDUCTIONS = new int[64][64];
+
+    static {
+        for (int depth = 1; depth < 64; depth++) {
+            for (int move = 1; move < 64; move++) {
+                REDUCTIONS[depth][move] = (int) (0.75 + Math.log(depth) * Math.log(move) / 2.25);
+            }
+        }
+    }
+
+    private final Position position;
+    private final TranspositionTable table;
+    private final int helper;
+    private final boolean principalVariation;
+    private final boolean aspirationWindows;
+    private final boolean nullMove;
+    private final boolean lateMoveReductions;
+    private final boolean futility;
+    private final int[] moves = new int[(MAX_PLY + 1) * Position.MAX_MOVES];
+    private final int[] scores = new int[(MAX_PLY + 1) * Position.MAX_MOVES];
+    private final MovePicker picker = new MovePicker();
+    private final PawnTable pawns = new PawnTable(PAWN_TABLE_ENTRIES);
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private final int[] previousPv = new int[MAX_PLY + 1];
+    private int previousPvLength;
+    private boolean followPv;
+
+    private long nodes;
+    private long startTime;
+    private long deadline;
+    private long nodeLimit;
+    private boolean completedIteration;
+    private boolean limitReached;
+    private volatile boolean stopped;
+
+    /**
+     * @param position the position to search, which the search changes and puts back
+     */
+    public Search(Position position) {
+        this(position, null);
+    }
+
+    /**
+     * @param position the position to search, which the search changes and puts back
+     * @param table    where results are stored and looked up, or null for none
+     */
+    public Search(Position position, TranspositionTable table) {
+        this(position, table, SearchFeature.all());
+    }
+
+    /**
+     * @param position the position to search, which the search changes and puts back
+     * @param table    where results are stored and looked up, or null for none
+     * @param features the selective search techniques to use
+     */
+    public Search(Position position, TranspositionTable table, Set<SearchFeature> features) {
+        this(position, table, features, 0);
+    }
+
+    /**
+     * @param helper 0 for the main search, or which helper this is
+     */
+    Search(Position position, TranspositionTable table, Set<SearchFeature> features, int helper) {
+        this.position = position;
+        this.table = table;
+        this.helper = helper;
+        this.principalVariation = features.contains(SearchFeature.PRINCIPAL_VARIATION);
+        this.aspirationWindows = features.contains(SearchFeature.ASPIRATION_WINDOWS);
+        this.nullMove = features.contains(SearchFeature.NULL_MOVE);
+        this.lateMoveReductions = features.contains(SearchFeature.LATE_MOVE_REDUCTIONS);
+        this.futility = features.contains(SearchFeature.FUTILITY);
+    }
+
+    /**
+     * Stops the search as soon as its first iteration is complete, or straight after the
+     * first iteration if it has not started yet. Safe to call from any thread.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return the fraction of evaluations that found their pawn structure already scored
+     */
+    double pawnHitRate() {
+        return pawns.hitRate();
+    }
+
+    /**
+     * @return how many positions have been searched so far
+     */
+    public long nodes() {
+        return nodes;
+    }
+
+    /**
+     * Searches until a limit is reached or {@link #stop()} is called
+     *
+     * @param limits   when to stop
+     * @param listener told about each completed iteration, or null
+     * @return the result of the deepest completed iteration
+     */
+    public SearchResult run(SearchLimits limits, Consumer<SearchResult> listener) {
+        startTime = System.nanoTime();
+        deadline = limits.millis() > 0 ? startTime + limits.millis() * 1_000_000 : Long.MAX_VALUE;
+        nodeLimit = limits.nodes() > 0 ? limits.nodes() : Long.MAX_VALUE;
+        int maxDepth = limits.depth() > 0 ? Math.min(limits.depth(), MAX_PLY) : MAX_PLY;
+        nodes = 0;
+        limitReached = false;
+        picker.newSearch();
+        completedIteration = false;
+        previousPvLength = 0;
+
+        SearchResult result = null;
+        // Every other helper starts a ply deeper, so the threads are not all on the same iteration
+        for (int depth = 1 + (helper & 1); depth <= maxDepth && !aborted(); depth++) {
+            int score = searchRoot(depth, result == null ? 0 : result.score());
+            if (aborted()) {
+                break;
+            }
+            result = result(depth, score);
+            completedIteration = true;
+            previousPvLength = pvLength[0];
+            System.arraycopy(pv[0], 0, previousPv, 0, previousPvLength);
+            if (listener != null) {
+                listener.accept(result);
+            }
+            if (pvLength[0] == 0 || Math.abs(score) >= MATE - depth) {
+                break; // no legal moves, or a forced mate has been found
+            }
+            // Another iteration takes several times as long as this one, so only start it if it could finish
+            if (deadline != Long.MAX_VALUE && System.nanoTime() - startTime > (deadline - startTime) / 2) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Searches the root, first with a narrow window around the previous iteration's score
+     * if aspiration windows are on, widening whichever side the score falls outside
+     */
+    private int searchRoot(int depth, int previousScore) {
+        if (!aspirationWindows || depth < ASPIRATION_DEPTH || Math.abs(previousScore) >= MATE - MAX_PLY) {
+            followPv = true;
+            return negamax(depth, -INFINITY, INFINITY, 0, true);
+        }
+        int window = ASPIRATION_WINDOW;
+        int alpha = previousScore - window;
+        int beta = previousScore + window;
+        while (true) {
+            followPv = true;
+            int score = negamax(depth, alpha, beta, 0, true);
+            if (aborted()) {
+                return score;
+            }
+            window *= 2;
+            if (score <= alpha) {
+                alpha = Math.max(score - window, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(score + window, INFINITY);
+            } else {
+                return score;
+            }
+        }
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply, boolean nullAllowed) {
+        pvLength[ply] = ply;
+        if (ply > 0 && (position.halfmoveClock() >= 100 || position.isRepetition())) {
+            return 0;
+        }
+        if (depth <= 0 && ply < MAX_PLY && position.inCheck()) {
+            depth = 1; // a check at the horizon is searched out, so mates there are seen
+        }
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiesce(alpha, beta, ply);
+        }
+        if (++nodes % CHECK_INTERVAL == 0) {
+            checkLimits();
+        }
+
+        int hashMove = Move.NONE;
+        if (table != null) {
+            long entry = table.probe(position.key());
+            if (entry != 0) {
+                hashMove = TranspositionTable.move(entry);
+                if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                    int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT ||
+                            bound == TranspositionTable.LOWER_BOUND && score >= beta ||
+                            bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        boolean pvNode = beta - alpha > 1;
+        boolean inCheck = position.inCheck();
+        int staticEval = inCheck ? -INFINITY : Evaluator.evaluate(position, pawns);
+        if (!pvNode && !inCheck) {
+            if (futility && depth <= FUTILITY_DEPTH) {
+                // So far above beta that no quiet reply near the horizon will bring it back
+                if (staticEval - FUTILITY_MARGIN * depth >= beta) {
+                    return staticEval;
+                }
+                // So far below alpha that only a capture could help, which quiescence search will find
+                if (staticEval + RAZOR_MARGIN * depth < alpha) {
+                    int score = quiesce(alpha, beta, ply);
+                    if (score < alpha) {
+                        return score;
+                    }
+                }
+            }
+            if (nullMove && nullAllowed && depth >= NULL_MOVE_DEPTH && staticEval >= beta &&
+                    position.hasNonPawnMaterial(position.sideToMove())) {
+                int reduction = 2 + depth / 6;
+                position.makeNullMove();
+                int score = -negamax(depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+                position.unmakeNullMove();
+                if (aborted()) {
+                    return 0;
+                }
+                if (score >= beta) {
+                    // Deep cutoffs are checked with a real reduced search, in case of zugzwang
+                    if (depth < NULL_MOVE_VERIFY_DEPTH ||
+                            negamax(depth - 1 - reduction, beta - 1, beta, ply, false) >= beta) {
+                        return score >= MATE - MAX_PLY ? beta : score;
+                    }
+                }
+            }
+        }
+
+        int start = ply * Position.MAX_MOVES;
+        int end = position.generateMoves(moves, start);
+        picker.score(position, moves, scores, start, end, hashMove, ply);
+        boolean onPv = followPv && ply < previousPvLength;
+        if (onPv) {
+            promote(start, end, previousPv[ply]);
+        }
+        if (ply == 0 && helper > 0) {
+            picker.shuffleQuiets(moves, scores, start, end, helper);
+        }
+        boolean frontier = futility && !pvNode && !inCheck && depth <= FUTILITY_DEPTH &&
+                staticEval + FUTILITY_MARGIN * depth <= alpha;
+
+        int originalAlpha = alpha;
+        int legalMoves = 0;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = start; i < end; i++) {
+            int move = MovePicker.pick(moves, scores, i, end);
+            if (!position.makeMove(move)) {
+                continue;
+            }
+            legalMoves++;
+            boolean quiet = !Move.isTactical(move) && !position.inCheck();
+            if (frontier && quiet && legalMoves > 1) {
+                position.unmakeMove(move);
+                best = Math.max(best, staticEval + FUTILITY_MARGIN * depth);
+                continue;
+            }
+            // Only the previous best move here can carry on along the previous best line
+            followPv = onPv && move == previousPv[ply];
+
+            int score;
+            if (legalMoves == 1) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+            } else {
+                int reduction = 0;
+                if (lateMoveReductions && quiet && !inCheck && depth >= LMR_DEPTH && legalMoves > LMR_MOVES) {
+                    reduction = REDUCTIONS[Math.min(depth, 63)][Math.min(legalMoves, 63)];
+                    // Reduce less along the principal variation, where a missed move costs the most
+                    reduction = Math.min(pvNode ? reduction - 1 : reduction, depth - 2);
+                }
+                // Without PVS, later moves still get the full window and only the reduction is tried first
+                int searchAlpha = principalVariation ? -alpha - 1 : -beta;
+                score = -negamax(depth - 1 - reduction, searchAlpha, -alpha, ply + 1, true);
+                if (score > alpha && reduction > 0) {
+                    score = -negamax(depth - 1, searchAlpha, -alpha, ply + 1, true);
+                }
+                if (principalVariation && score > alpha && score < beta) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+                }
+            }
+            position.unmakeMove(move);
+            if (aborted()) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    bestMove = move;
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        if (!Move.isTactical(move)) {
+                            picker.cutoff(position, move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        if (legalMoves == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        if (table != null) {
+            int bound = best >= beta ? TranspositionTable.LOWER_BOUND
+                    : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+            table.store(position.key(), bestMove, scoreToTable(best, ply), depth, bound);
+        }
+        return best;
+    }
+
+    /**
+     * Searches only captures and promotions, until the position is quiet enough for its
+     * evaluation to be trusted. The side to move can always stand pat instead of
+     * capturing, so the evaluation is a lower bound. Captures that lose material in the
+     * exchange that follows, and captures that could not bring the score up to alpha even
+     * with a margin to spare, are not searched. A side in check can't stand pat, so there
+     * every move is searched instead.
+     */
+    private int quiesce(int alpha, int beta, int ply) {
+        if (++nodes % CHECK_INTERVAL == 0) {
+            checkLimits();
+        }
+        boolean inCheck = position.inCheck();
+        if (ply >= MAX_PLY) {
+            return Evaluator.evaluate(position, pawns);
+        }
+        int standPat = inCheck ? -INFINITY : Evaluator.evaluate(position, pawns);
+        if (standPat >= beta) {
+            return standPat;
+        }
+        alpha = Math.max(alpha, standPat);
+
+        int start = ply * Position.MAX_MOVES;
+        int end = inCheck ? position.generateMoves(moves, start) : position.generateTactical(moves, start);
+        picker.score(position, moves, scores, start, end, Move.NONE, ply);
+        int best = standPat;
+        int legalMoves = 0;
+        for (int i = start; i < end; i++) {
+            int move = MovePicker.pick(moves, scores, i, end);
+            if (!inCheck && (standPat + materialGain(move) + DELTA_MARGIN < alpha || position.staticExchange(move) < 0)) {
+                continue;
+            }
+            if (!position.makeMove(move)) {
+                continue;
+            }
+            legalMoves++;
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            position.unmakeMove(move);
+            if (aborted()) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (inCheck && legalMoves == 0) {
+            return -MATE + ply;
+        }
+        return best;
+    }
+
+    /**
+     * @return the most material a capture or promotion can win before any recapture
+     */
+    private int materialGain(int move) {
+        int gain = 0;
+        if (Move.isCapture(move)) {
+            gain = (move & Move.EN_PASSANT) != 0 ? Evaluator.PIECE_VALUES[Piece.PAWN]
+                    : Evaluator.PIECE_VALUES[Piece.type(position.pieceAt(Move.to(move)))];
+        }
+        if (Move.promotion(move) != Piece.NONE) {
+            gain += Evaluator.PIECE_VALUES[Move.promotion(move)] - Evaluator.PIECE_VALUES[Piece.PAWN];
+        }
+        return gain;
+    }
+
+    /**
+     * Mate scores count plies from the root, but the table is shared between positions
+     * reached at different plies, so they are stored counting from the position itself
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        return score <= -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        return score <= -MATE + MAX_PLY ? score + ply : score;
+    }
+
+    private void updatePrincipalVariation(int ply, int move) {
+        pv[ply][ply] = move;
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+        pvLength[ply] = pvLength[ply + 1];
+    }
+
+    /**
+     * Makes a move the first one picked
+     */
+    private void promote(int start, int end, int move) {
+        for (int i = start; i < end; i++) {
+            if (moves[i] == move) {
+                scores[i] = Integer.MAX_VALUE;
+                return;
+            }
+        }
+    }
+
+    private void checkLimits() {
+        if (completedIteration && (nodes >= nodeLimit || System.nanoTime() >= deadline)) {
+            limitReached = true;
+        }
+    }
+
+    private boolean aborted() {
+        // The first iteration always finishes, so there is always a move to play
+        return limitReached || stopped && completedIteration;
+    }
+
+    private SearchResult result(int depth, int score) {
+        List<ChessMove> line = new ArrayList<>();
+        for (int i = 0; i < pvLength[0]; i++) {
+            line.add(Move.toChessMove(pv[0][i]));
+        }
+        return new SearchResult(line.isEmpty() ? null : line.get(0), score, depth, nodes,
+                System.nanoTime() - startTime, List.copyOf(line));
+    }
+}
@@ -0,0 +1,54 @@
+package chess.engine;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The selective search techniques a {@link Search} can use. Each one can be turned off
+ * on its own, to measure what it saves or to rule it out when a search goes wrong.
+ */
+public enum SearchFeature {
+    /**
+     * Principal variation search: after the first move, each move is searched with a
+     * zero-width window that only proves it is no better, and searched again with the full
+     * window if it turns out to be better after all
+     */
+    PRINCIPAL_VARIATION,
+    /**
+     * Each iteration starts with a narrow window around the last iteration's score,
+     * widening it only if the score falls outside
+     */
+    ASPIRATION_WINDOWS,
+    /**
+     * If passing the turn still leaves the side to move above beta after a reduced
+     * search, a real move will too, so the node is cut off. Not used in check or when the
+     * side to move has only pawns, where passing might be better than any move
+     * (zugzwang), and checked with a normal reduced search at high depths.
+     */
+    NULL_MOVE,
+    /**
+     * Quiet moves late in the order are searched less deeply, and again at full depth
+     * only if they turn out to raise alpha
+     */
+    LATE_MOVE_REDUCTIONS,
+    /**
+     * Near the horizon, quiet moves are skipped when the static evaluation is so far
+     * below alpha that they cannot make up the difference, nodes far above beta are cut
+     * off, and nodes far below alpha are resolved by quiescence search alone (razoring)
+     */
+    FUTILITY;
+
+    /**
+     * @return every feature, which is what an {@link Engine} uses by default
+     */
+    public static Set<SearchFeature> all() {
+        return EnumSet.allOf(SearchFeature.class);
+    }
+
+    /**
+     * @return no features, for a plain alpha-beta search
+     */
+    public static Set<SearchFeature> none() {
+        return EnumSet.noneOf(SearchFeature.class);
+    }
+}
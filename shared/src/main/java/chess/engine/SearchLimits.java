@@ -0,0 +1,30 @@
+package chess.engine;
+
+/**
+ * When a search should stop. Zero means no limit; a search with no limits at all runs
+ * to {@link Search#MAX_PLY} or until it is stopped.
+ *
+ * @param depth  the deepest iteration to search
+ * @param millis how long to search
+ * @param nodes  how many nodes to search
+ */
+public record SearchLimits(int depth, long millis, long nodes) {
+
+    public SearchLimits {
+        if (depth < 0 || millis < 0 || nodes < 0) {
+            throw new IllegalArgumentException("Search limits must not be negative");
+        }
+    }
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits time(long millis) {
+        return new SearchLimits(0, millis, 0);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, 0, nodes);
+    }
+}
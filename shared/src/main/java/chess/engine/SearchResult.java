@@ -0,0 +1,60 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * What a search found after its last completed iteration
+ *
+ * @param bestMove           the move to play, or null if there are no legal moves
+ * @param score              centipawns from the point of view of the side to move, or a
+ *                           mate score (see {@link #mateIn()})
+ * @param depth              the depth of the last completed iteration
+ * @param nodes              how many positions were searched
+ * @param nanoseconds        how long the search took
+ * @param principalVariation the moves both sides are expected to play, starting with bestMove
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long nanoseconds,
+                           List<ChessMove> principalVariation) {
+
+    public long nodesPerSecond() {
+        return nanoseconds == 0 ? 0 : nodes * 1_000_000_000L / nanoseconds;
+    }
+
+    /**
+     * @return whether the score is a mate score, including for a side already checkmated
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    /**
+     * @return the number of moves until mate, negative if the side to move is being
+     * mated. 0 means either that the side to move is already checkmated, as in the UCI
+     * protocol's {@code mate 0}, or that the score is not a mate score; {@link #isMate()}
+     * tells the two apart.
+     */
+    public int mateIn() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = Search.MATE - Math.abs(score);
+        if (plies == 0) {
+            return 0; // checkmated already, with no moves left to count
+        }
+        return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+    }
+
+    /**
+     * @return a line in the style of the UCI protocol's info output
+     */
+    @Override
+    public String toString() {
+        String scoreText = isMate() ? "mate " + mateIn() : "cp " + score;
+        return String.format("depth %d score %s nodes %d nps %d time %d pv %s", depth, scoreText, nodes,
+                nodesPerSecond(), nanoseconds / 1_000_000,
+                principalVariation.stream().map(ChessMove::toString).collect(Collectors.joining(" ")));
+    }
+}
@@ -0,0 +1,158 @@
+package chess.engine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size hash table of search results, keyed by Zobrist key, that any number of
+ * search threads can share without locks.
+ * <p>
+ * As in {@link chess.PerftTable}, each entry is two longs, a check word holding
+ * {@code key ^ data} and the data word, so an entry torn by two threads writing at once
+ * reads as a miss. The data word packs the best move, score, depth, bound type and the
+ * age of the search that stored it. Entries from earlier searches are replaced first;
+ * within one search, deeper results are kept over shallower ones.
+ */
+public class TranspositionTable {
+
+    /** The score is at most the stored score (no move reached alpha) */
+    public static final int UPPER_BOUND = 1;
+    /** The score is at least the stored score (a move reached beta) */
+    public static final int LOWER_BOUND = 2;
+    /** The score is exact */
+    public static final int EXACT = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    // Each entry is two longs, and the array holding them can't reach 2^31 longs
+    static final int MAX_ENTRIES = 1 << 29;
+    private static final int AGE_MASK = 63;
+
+    private final AtomicLongArray entries; // check word, data word, check word, ...
+    private final int indexMask;
+    private volatile int age;
+
+    /**
+     * @param megabytes how much memory to use; rounded down to a power of two entries, at most
+     *                  8 GB
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("The table needs at least 1 MB");
+        }
+        int size = entriesFor(megabytes);
+        this.entries = new AtomicLongArray(size * 2);
+        this.indexMask = size - 1;
+    }
+
+    /**
+     * @return how many entries a table of the given size holds
+     */
+    static int entriesFor(int megabytes) {
+        long wanted = (long) megabytes * 1024 * 1024 / ENTRY_BYTES;
+        return Integer.highestOneBit((int) Math.min(wanted, MAX_ENTRIES));
+    }
+
+    /**
+     * @return how many entries the table holds
+     */
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    /**
+     * @return the data word stored for a position, or 0 if there is none; read it with
+     * {@link #move(long)}, {@link #score(long)}, {@link #depth(long)} and {@link #bound(long)}
+     */
+    public long probe(long key) {
+        int slot = slot(key);
+        long data = entries.getOpaque(slot + 1);
+        long check = entries.getOpaque(slot);
+        return (check ^ data) == key ? data : 0;
+    }
+
+    /**
+     * Stores a search result unless the slot holds a deeper result from this search
+     *
+     * @param key   the position's Zobrist key
+     * @param move  the best move found, or {@link Move#NONE}
+     * @param score the score, with mate scores relative to this position
+     * @param depth the depth searched
+     * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int slot = slot(key);
+        long oldData = entries.getOpaque(slot + 1);
+        boolean sameKey = (entries.getOpaque(slot) ^ oldData) == key;
+        if (oldData != 0 && age(oldData) == age && depth(oldData) > depth + (sameKey ? 0 : 2) && bound != EXACT) {
+            return;
+        }
+        if (move == Move.NONE && sameKey) {
+            move = move(oldData); // keep the old best move rather than forget it
+        }
+        long data = (Move.squaresAndPromotion(move) & 0xFFFFL) |
+                (score & 0xFFFFL) << 16 |
+                (long) Math.min(depth, 255) << 32 |
+                (long) bound << 40 |
+                (long) age << 42;
+        entries.setOpaque(slot + 1, data);
+        entries.setOpaque(slot, key ^ data);
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are replaced first
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /**
+     * Empties the table
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.setOpaque(i, 0);
+        }
+    }
+
+    /**
+     * @return roughly how full the table is with entries from the current search, in
+     * thousandths, as the UCI protocol reports it
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = entries.getOpaque(i * 2 + 1);
+            if (data != 0 && age(data) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * @return the stored best move's squares and promotion (see {@link Move#squaresAndPromotion(int)})
+     */
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 32 & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 40 & 3);
+    }
+
+    private static int age(long data) {
+        return (int) (data >>> 42 & AGE_MASK);
+    }
+
+    private int slot(long key) {
+        return ((int) key & indexMask) * 2;
+    }
+}
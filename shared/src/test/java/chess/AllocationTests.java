@@ -0,0 +1,186 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fails when a hot path starts allocating more than it used to.
+ * <p>
+ * Each call is warmed up until the JIT has compiled it, then the bytes the test thread
+ * allocates over many calls are averaged. Budgets were set from measurements on a
+ * 64-bit JVM with compressed pointers, with some room to spare. Calls that return moves
+ * are allowed a fixed amount for the collection plus an amount per move; the rest must
+ * not allocate at all.
+ */
+public class AllocationTests {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int MEASURED_CALLS = 1_000;
+    private static final int ROUNDS = 5;
+
+    // A list and its backing array, then a ChessMove and its end ChessPosition for each move
+    private static final long PIECE_MOVES_BASE = 256;
+    private static final long PIECE_MOVES_PER_MOVE = 64;
+    // validMoves also builds a second list and records an undo for every move it tries
+    private static final long VALID_MOVES_BASE = 512;
+    private static final long VALID_MOVES_PER_MOVE = 128;
+    private static final long MAKE_MOVE = 128;
+    private static final long GAME_STATUS = 2048;
+
+    // Written by every measured call so the JIT cannot throw the work away
+    private static Object sink;
+
+    @BeforeAll
+    public static void requireAllocationCounting() {
+        Assumptions.assumeTrue(THREADS.isThreadAllocatedMemorySupported(), "JVM cannot count allocated bytes");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @ParameterizedTest
+    @EnumSource(PerftPosition.class)
+    @DisplayName("pieceMoves Allocation")
+    public void pieceMoves(PerftPosition position) {
+        ChessBoard board = position.game().getBoard();
+        List<ChessPosition> squares = occupiedSquares(board, null);
+        warmUp(() -> {
+            for (ChessPosition square : squares) {
+                sink = board.getPiece(square).pieceMoves(board, square);
+            }
+        });
+
+        for (ChessPosition square : squares) {
+            ChessPiece piece = board.getPiece(square);
+            int moves = piece.pieceMoves(board, square).size();
+            assertWithinBudget(PIECE_MOVES_BASE + PIECE_MOVES_PER_MOVE * moves,
+                    () -> sink = piece.pieceMoves(board, square),
+                    position + " " + piece.getPieceType() + " on " + square);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(PerftPosition.class)
+    @DisplayName("validMoves Allocation")
+    public void validMoves(PerftPosition position) {
+        ChessGame game = position.game();
+        ChessBoard board = game.getBoard();
+        List<ChessPosition> squares = occupiedSquares(board, game.getTeamTurn());
+        warmUp(() -> {
+            for (ChessPosition square : squares) {
+                sink = game.validMoves(square);
+            }
+        });
+
+        for (ChessPosition square : squares) {
+            ChessPiece piece = board.getPiece(square);
+            int tried = piece.pieceMoves(board, square).size();
+            if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+                tried += 2; // castling moves are tried on top of the king's ordinary moves
+            }
+            assertWithinBudget(VALID_MOVES_BASE + VALID_MOVES_PER_MOVE * tried,
+                    () -> sink = game.validMoves(square),
+                    position + " " + piece.getPieceType() + " on " + square);
+        }
+    }
+
+    @Test
+    @DisplayName("makeMove Allocation")
+    public void makeMove() {
+        // Knights out and back again, so the game can go on forever without changing
+        ChessGame game = new ChessGame();
+        ChessMove[] cycle = {
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+                new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null)
+        };
+        int[] ply = {0};
+        Runnable move = () -> {
+            try {
+                game.makeMove(cycle[ply[0]++ & 3]);
+            } catch (InvalidMoveException e) {
+                throw new AssertionError(e);
+            }
+        };
+        warmUp(move);
+        assertWithinBudget(MAKE_MOVE, move, "makeMove");
+    }
+
+    @ParameterizedTest
+    @EnumSource(PerftPosition.class)
+    @DisplayName("Check Detection Does Not Allocate")
+    public void checkDetection(PerftPosition position) {
+        ChessGame game = position.game();
+        ChessGame.TeamColor team = game.getTeamTurn();
+        ChessPosition center = new ChessPosition(4, 5);
+        Runnable check = () -> {
+            sink = game.isInCheck(team);
+            sink = game.isInCheck(team.opponent());
+            sink = game.isSquareAttacked(center, team.opponent());
+        };
+        warmUp(check);
+        assertWithinBudget(0, check, position + " isInCheck");
+    }
+
+    @ParameterizedTest
+    @EnumSource(PerftPosition.class)
+    @DisplayName("Game Status Allocation")
+    public void gameStatus(PerftPosition position) {
+        ChessGame game = position.game();
+        ChessGame.TeamColor team = game.getTeamTurn();
+        Runnable status = () -> {
+            sink = game.isInCheckmate(team);
+            sink = game.isInStalemate(team);
+        };
+        warmUp(status);
+        assertWithinBudget(game.isInCheck(team) ? GAME_STATUS : GAME_STATUS / 2, status, position + " status");
+    }
+
+    private static List<ChessPosition> occupiedSquares(ChessBoard board, ChessGame.TeamColor team) {
+        List<ChessPosition> squares = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(position);
+                if (piece != null && (team == null || piece.getTeamColor() == team)) {
+                    squares.add(position);
+                }
+            }
+        }
+        return squares;
+    }
+
+    private static void warmUp(Runnable call) {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call.run();
+        }
+    }
+
+    /**
+     * Takes the best of a few rounds, so a stray allocation from the JIT or a late
+     * recompilation does not fail the test
+     */
+    private static void assertWithinBudget(long budget, Runnable call, String description) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS && best > budget; round++) {
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < MEASURED_CALLS; i++) {
+                call.run();
+            }
+            best = Math.min(best, (THREADS.getCurrentThreadAllocatedBytes() - before) / MEASURED_CALLS);
+        }
+        Assertions.assertTrue(best <= budget,
+                description + " allocated " + best + " bytes per call, budget is " + budget);
+    }
+}
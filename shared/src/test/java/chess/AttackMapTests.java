@@ -0,0 +1,78 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class AttackMapTests {
+
+    @Test
+    @DisplayName("Starting Position Counts")
+    public void startingPosition() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        board.setAttackTracking(true);
+        AttackMap attacks = board.getAttackMap();
+
+        // f3 is covered by the e2 and g2 pawns and the g1 knight
+        Assertions.assertEquals(3, attacks.count(ChessGame.TeamColor.WHITE, new ChessPosition(3, 6)));
+        // d1 queen is defended by the king only; the c1 bishop and e1 king are blocked in
+        Assertions.assertEquals(1, attacks.count(ChessGame.TeamColor.WHITE, new ChessPosition(1, 4)));
+        Assertions.assertEquals(0, attacks.count(ChessGame.TeamColor.BLACK, new ChessPosition(4, 4)));
+    }
+
+    @Test
+    @DisplayName("Incremental Counts Match A Full Recount")
+    public void incrementalMatchesRecount() throws InvalidMoveException {
+        var random = new Random(30);
+        for (int gameNumber = 0; gameNumber < 10; gameNumber++) {
+            var game = new ChessGame();
+            game.setAttackTracking(true);
+            var untracked = new ChessGame();
+            for (int ply = 0; ply < 80; ply++) {
+                List<ChessMove> moves = allMoves(game);
+                assertMatchesRecount(game.getBoard());
+                for (var color : ChessGame.TeamColor.values()) {
+                    Assertions.assertEquals(untracked.isInCheck(color), game.isInCheck(color));
+                }
+                if (moves.isEmpty()) {
+                    break;
+                }
+                ChessMove move = moves.get(random.nextInt(moves.size()));
+                game.makeMove(move);
+                untracked.makeMove(move);
+            }
+        }
+    }
+
+    private static List<ChessMove> allMoves(ChessGame game) {
+        List<ChessMove> moves = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var position = new ChessPosition(row, col);
+                var piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    moves.addAll(game.validMoves(position));
+                }
+            }
+        }
+        return moves;
+    }
+
+    private static void assertMatchesRecount(ChessBoard board) {
+        var recounted = new ChessBoard(board);
+        recounted.setAttackTracking(false);
+        recounted.setAttackTracking(true);
+        for (var color : ChessGame.TeamColor.values()) {
+            for (int square = 0; square < 64; square++) {
+                Assertions.assertEquals(recounted.getAttackMap().count(color, square),
+                        board.getAttackMap().count(color, square),
+                        "Wrong " + color + " count on square " + square + "\n" + board);
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentChessGameTests {
+
+    private static final ChessMove[] SCHOLARS_MATE = {
+            move(2, 5, 4, 5), move(7, 5, 5, 5),
+            move(1, 6, 4, 3), move(8, 2, 6, 3),
+            move(1, 4, 5, 8), move(8, 7, 6, 6),
+            move(5, 8, 7, 6)
+    };
+
+    @Test
+    @DisplayName("Behaves Like ChessGame")
+    public void singleThreaded() throws InvalidMoveException {
+        var game = new ConcurrentChessGame();
+        var reference = new ChessGame();
+        for (ChessMove move : SCHOLARS_MATE) {
+            Assertions.assertEquals(new ArrayList<>(reference.validMoves(move.getStartPosition())),
+                    new ArrayList<>(game.validMoves(move.getStartPosition())));
+            game.makeMove(move);
+            reference.makeMove(move);
+            Assertions.assertEquals(reference.getBoard(), game.getBoard());
+            Assertions.assertEquals(reference.getTeamTurn(), game.getTeamTurn());
+        }
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("getBoard Returns A Snapshot")
+    public void boardSnapshot() {
+        var game = new ConcurrentChessGame();
+        game.getBoard().addPiece(new ChessPosition(4, 4),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        Assertions.assertNull(game.getBoard().getPiece(new ChessPosition(4, 4)),
+                "Changing the returned board changed the game");
+    }
+
+    @Test
+    @DisplayName("Readers Only See Whole Moves")
+    public void readersDuringMoves() throws Exception {
+        // Every board a reader sees must be one that existed between two moves
+        Set<ChessBoard> legalStates = ConcurrentHashMap.newKeySet();
+        Set<String> legalFens = ConcurrentHashMap.newKeySet();
+        var replay = new ChessGame();
+        legalStates.add(new ChessBoard(replay.getBoard()));
+        legalFens.add(placement(replay));
+        for (ChessMove move : SCHOLARS_MATE) {
+            replay.makeMove(move);
+            legalStates.add(new ChessBoard(replay.getBoard()));
+            legalFens.add(placement(replay));
+        }
+
+        var game = new ConcurrentChessGame();
+        var done = new AtomicBoolean();
+        var failure = new AtomicReference<Throwable>();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    while (!done.get()) {
+                        Assertions.assertTrue(legalStates.contains(game.getBoard()), "Saw a half-made move");
+                        String fen = placement(game);
+                        Assertions.assertTrue(legalFens.contains(fen), () -> "FEN mixes two positions: " + fen);
+                        game.isInCheck(game.getTeamTurn());
+                        game.validMoves(new ChessPosition(1, 5));
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+
+        for (int round = 0; round < 200; round++) {
+            game.setBoard(new ChessGame().getBoard());
+            game.setTeamTurn(ChessGame.TeamColor.WHITE);
+            for (ChessMove move : SCHOLARS_MATE) {
+                game.makeMove(move);
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        Assertions.assertNull(failure.get(), () -> "Reader failed: " + failure.get());
+    }
+
+    @Test
+    @DisplayName("isLegal During Moves")
+    public void isLegalDuringMoves() throws Exception {
+        var game = new ConcurrentChessGame();
+        var done = new AtomicBoolean();
+        var failure = new AtomicReference<Throwable>();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    while (!done.get()) {
+                        for (ChessMove move : SCHOLARS_MATE) {
+                            game.isLegal(move);
+                        }
+                        game.getZobristKey();
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+
+        var reference = new ChessGame();
+        for (ChessMove move : SCHOLARS_MATE) {
+            reference.makeMove(move);
+        }
+        for (int round = 0; round < 200; round++) {
+            game.setBoard(new ChessGame().getBoard());
+            game.setTeamTurn(ChessGame.TeamColor.WHITE);
+            for (ChessMove move : SCHOLARS_MATE) {
+                game.makeMove(move);
+            }
+            Assertions.assertEquals(reference.getBoard(), game.getBoard(), "isLegal changed the game");
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        Assertions.assertNull(failure.get(), () -> "Reader failed: " + failure.get());
+        Assertions.assertEquals(reference.getZobristKey(), game.getZobristKey());
+    }
+
+    /**
+     * @return a game's FEN without the move counters, which keep counting when the board is reset
+     */
+    private static String placement(ChessGame game) {
+        String fen = Fen.format(game);
+        return fen.substring(0, fen.lastIndexOf(' ', fen.lastIndexOf(' ') - 1));
+    }
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+    }
+}
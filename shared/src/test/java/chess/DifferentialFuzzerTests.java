@@ -0,0 +1,83 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DifferentialFuzzerTests {
+
+    @ParameterizedTest
+    @EnumSource(PerftPosition.class)
+    @DisplayName("Reference Generator Matches Published Perft Counts")
+    public void referenceMatchesPerft(PerftPosition position) {
+        ChessGame game = position.game();
+        var reference = new ReferenceMoveGenerator();
+        long nodes = 0;
+        for (ChessMove move : reference.legalMoves(game)) {
+            game.doMove(move);
+            nodes += reference.legalMoves(game).size();
+            game.undoMove();
+        }
+        Assertions.assertEquals(position.expectedNodes(2), nodes);
+    }
+
+    @Test
+    @DisplayName("Built-In Generators Agree With Reference")
+    public void builtInGeneratorsAgree() {
+        var fuzzer = new DifferentialFuzzer(new ReferenceMoveGenerator(), DifferentialFuzzer.builtInGenerators(), 60);
+        DifferentialFuzzer.Result result = fuzzer.run(6, 2, 240);
+
+        Assertions.assertEquals(List.of(), result.mismatches());
+        Assertions.assertEquals(6, result.games());
+        Assertions.assertTrue(result.positions() > 6);
+        Assertions.assertEquals(result.positions(), fuzzer.run(6, 3, 240).positions(),
+                "The same seed should play the same games on any number of threads");
+    }
+
+    @Test
+    @DisplayName("Mismatch Shrinks To Minimal Position")
+    public void shrinksMismatch() {
+        MoveGenerator noCastling = game -> {
+            Set<ChessMove> moves = MoveGenerator.VALID_MOVES.legalMoves(game);
+            moves.removeIf(move -> game.currentBoard().getPiece(move.getStartPosition()).getPieceType() ==
+                    ChessPiece.PieceType.KING &&
+                    Math.abs(move.getEndPosition().getColumn() - move.getStartPosition().getColumn()) == 2);
+            return moves;
+        };
+        var fuzzer = new DifferentialFuzzer(new ReferenceMoveGenerator(), Map.of("noCastling", noCastling), 10);
+
+        DifferentialFuzzer.Mismatch mismatch = fuzzer.check(PerftPosition.KIWIPETE.game());
+
+        Assertions.assertNotNull(mismatch);
+        Assertions.assertEquals("noCastling", mismatch.generator());
+        Assertions.assertEquals(PerftPosition.KIWIPETE.fen(), mismatch.fen());
+        Assertions.assertEquals(Set.of(
+                new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 3), null)), mismatch.missing());
+        Assertions.assertEquals(Set.of(), mismatch.extra());
+
+        // Only the kings and one rook that can still castle are needed
+        ChessBoard minimal = Fen.parse(mismatch.minimalFen()).getBoard();
+        Assertions.assertEquals(3, Long.bitCount(minimal.getOccupancy()), mismatch.minimalFen());
+    }
+
+    @Test
+    @DisplayName("Generator That Throws Is A Mismatch")
+    public void throwingGenerator() {
+        MoveGenerator broken = game -> {
+            throw new IllegalStateException("broken");
+        };
+        var fuzzer = new DifferentialFuzzer(new ReferenceMoveGenerator(), Map.of("broken", broken), 10);
+
+        DifferentialFuzzer.Result result = fuzzer.run(3, 1, 1);
+
+        Assertions.assertEquals(1, result.mismatches().size());
+        Assertions.assertTrue(result.mismatches().get(0).error().contains("broken"));
+    }
+}
@@ -0,0 +1,45 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Start Position Matches New Game")
+    public void startPosition() {
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertEquals(Fen.START_POSITION, Fen.format(new ChessGame()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(PerftPosition.class)
+    @DisplayName("Round Trip")
+    public void roundTrip(PerftPosition position) {
+        Assertions.assertEquals(position.fen(), Fen.format(Fen.parse(position.fen())));
+    }
+
+    @Test
+    @DisplayName("Counters And En Passant Follow Moves")
+    public void followsMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", Fen.format(game));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 1 2", Fen.format(game));
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 2 2", Fen.format(game));
+    }
+
+    @Test
+    @DisplayName("Rejects Bad FEN")
+    public void rejectsBadFen() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8 w - -"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("9/8/8/8/8/8/8/8 w - -"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse(Fen.START_POSITION.replace(" w ", " x ")));
+    }
+}
@@ -0,0 +1,58 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class IsLegalTests {
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {null, ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.KING, ChessPiece.PieceType.PAWN};
+
+    @Test
+    @DisplayName("isLegal Agrees With validMoves")
+    public void agreesWithValidMoves() throws InvalidMoveException {
+        var random = new Random(240);
+        for (int gameNumber = 0; gameNumber < 4; gameNumber++) {
+            var game = new ChessGame();
+            for (int ply = 0; ply < 60; ply++) {
+                List<ChessMove> legalMoves = assertAgreement(game);
+                if (legalMoves.isEmpty()) {
+                    break;
+                }
+                game.makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+            }
+        }
+    }
+
+    /**
+     * Tries every start, end and promotion combination and returns the legal ones
+     */
+    private static List<ChessMove> assertAgreement(ChessGame game) {
+        List<ChessMove> legalMoves = new ArrayList<>();
+        for (int startSquare = 0; startSquare < 64; startSquare++) {
+            var start = new ChessPosition(startSquare / 8 + 1, startSquare % 8 + 1);
+            var piece = game.getBoard().getPiece(start);
+            var validMoves = piece == null || piece.getTeamColor() != game.getTeamTurn() ?
+                    List.<ChessMove>of() : game.validMoves(start);
+            for (int endSquare = 0; endSquare < 64; endSquare++) {
+                var end = new ChessPosition(endSquare / 8 + 1, endSquare % 8 + 1);
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    var move = new ChessMove(start, end, promotion);
+                    boolean expected = validMoves.contains(move);
+                    Assertions.assertEquals(expected, game.isLegal(move), () -> "isLegal disagrees on " +
+                            start + "->" + end + " " + promotion + "\n" + game.getBoard());
+                    if (expected) {
+                        legalMoves.add(move);
+                    }
+                }
+            }
+        }
+        return legalMoves;
+    }
+}
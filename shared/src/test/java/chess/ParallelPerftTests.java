@@ -0,0 +1,59 @@
+package chess;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelPerftTests {
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    public static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    public static void stopPool() {
+        pool.shutdown();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PerftPosition.class, names = {"KIWIPETE", "EN_PASSANT_PIN", "PROMOTION"})
+    @DisplayName("Parallel Perft Matches Published Counts")
+    public void matchesPublishedCounts(PerftPosition position) {
+        // A sequential depth of 1 splits every level above the leaves, the most any run can split
+        var perft = new ParallelPerft(pool, 1);
+        var game = position.game();
+        ParallelPerft.Result result = perft.run(game, 3);
+
+        Assertions.assertEquals(position.expectedNodes(3), result.nodes());
+        Assertions.assertEquals(result.nodes(),
+                result.nodesPerWorker().values().stream().mapToLong(Long::longValue).sum(),
+                "Worker counts do not add up to the total");
+        Assertions.assertEquals(position.fen(), Fen.format(game), "perft changed the game");
+    }
+
+    @Test
+    @DisplayName("Worker Counts Include Table Hits")
+    public void tallyTableHits() {
+        var table = new PerftTable(1, PerftTable.Replacement.DEPTH_PREFERRED);
+        var perft = new ParallelPerft(pool, 1, table);
+        var position = PerftPosition.KIWIPETE;
+
+        // The second run finds the whole tree in the table, above the sequential depth
+        for (int run = 0; run < 2; run++) {
+            ParallelPerft.Result result = perft.run(position.game(), 3);
+            Assertions.assertEquals(position.expectedNodes(3), result.nodes());
+            Assertions.assertEquals(result.nodes(),
+                    result.nodesPerWorker().values().stream().mapToLong(Long::longValue).sum(),
+                    "Worker counts do not add up to the total on run " + (run + 1));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftTableTests {
+
+    @Test
+    @DisplayName("Size Capped Below The Largest Array")
+    public void sizeCap() {
+        Assertions.assertEquals(1 << 16, PerftTable.entriesFor(1));
+        Assertions.assertEquals(PerftTable.MAX_ENTRIES, PerftTable.entriesFor(8192));
+        Assertions.assertEquals(PerftTable.MAX_ENTRIES, PerftTable.entriesFor(16384));
+        Assertions.assertEquals(PerftTable.MAX_ENTRIES, PerftTable.entriesFor(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Probe Finds Stored Count")
+    public void probeFindsStore() {
+        var table = new PerftTable(1, PerftTable.Replacement.ALWAYS);
+        table.store(0x1234_5678_9ABC_DEF0L, 4, 4_085_603);
+        Assertions.assertEquals(4_085_603, table.probe(0x1234_5678_9ABC_DEF0L, 4));
+        Assertions.assertEquals(-1, table.probe(0x1234_5678_9ABC_DEF0L, 3), "Found a count for the wrong depth");
+        Assertions.assertEquals(-1, table.probe(0x1234_5678_9ABC_DEF1L, 4), "Found a count for the wrong key");
+    }
+
+    @Test
+    @DisplayName("Depth Preferred Keeps Deeper Counts")
+    public void depthPreferred() {
+        var table = new PerftTable(1, PerftTable.Replacement.DEPTH_PREFERRED);
+        long key = 42;
+        long sameSlot = key + table.capacity();
+        table.store(key, 5, 1000);
+        table.store(sameSlot, 2, 10);
+        Assertions.assertEquals(1000, table.probe(key, 5));
+        Assertions.assertEquals(-1, table.probe(sameSlot, 2));
+
+        var always = new PerftTable(1, PerftTable.Replacement.ALWAYS);
+        always.store(key, 5, 1000);
+        always.store(sameSlot, 2, 10);
+        Assertions.assertEquals(-1, always.probe(key, 5));
+        Assertions.assertEquals(10, always.probe(sameSlot, 2));
+    }
+
+    @Test
+    @DisplayName("Hashed Perft Matches Published Counts")
+    public void hashedPerft() {
+        for (var replacement : PerftTable.Replacement.values()) {
+            var table = new PerftTable(1, replacement);
+            var position = PerftPosition.EN_PASSANT_PIN;
+            Assertions.assertEquals(position.expectedNodes(5), Perft.run(position.game(), 5, table).nodes());
+            Assertions.assertTrue(table.hitRate() > 0, "Rook endgame has transpositions by depth 5");
+        }
+    }
+
+    @Test
+    @DisplayName("Shared Table Across Workers")
+    public void sharedAcrossWorkers() {
+        var pool = new ForkJoinPool(4);
+        try {
+            var table = new PerftTable(1, PerftTable.Replacement.DEPTH_PREFERRED);
+            var perft = new ParallelPerft(pool, 2, table);
+            Assertions.assertEquals(PerftPosition.KIWIPETE.expectedNodes(3),
+                    perft.run(PerftPosition.KIWIPETE.game(), 3).nodes());
+            Assertions.assertEquals(PerftPosition.MIDDLEGAME.expectedNodes(3),
+                    perft.run(PerftPosition.MIDDLEGAME.game(), 3).nodes());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
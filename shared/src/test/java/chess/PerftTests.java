@@ -0,0 +1,48 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Map;
+
+public class PerftTests {
+
+    // Keeps the suite to a few seconds; run chess.Perft directly for the deeper counts
+    private static final long NODE_BUDGET = 200_000;
+
+    @ParameterizedTest
+    @EnumSource(PerftPosition.class)
+    @DisplayName("Perft Matches Published Counts")
+    public void matchesPublishedCounts(PerftPosition position) {
+        ChessGame game = position.game();
+        for (int depth = 1; depth <= position.maxDepth() && position.expectedNodes(depth) <= NODE_BUDGET; depth++) {
+            Assertions.assertEquals(position.expectedNodes(depth), game.perft(depth),
+                    position + " at depth " + depth);
+        }
+        Assertions.assertEquals(position.fen(), Fen.format(game), "perft changed the game");
+    }
+
+    @Test
+    @DisplayName("Divide Adds Up To Perft")
+    public void divideAddsUp() {
+        ChessGame game = PerftPosition.KIWIPETE.game();
+        Map<ChessMove, Long> divide = game.divide(2);
+        Assertions.assertEquals(48, divide.size());
+        Assertions.assertEquals(PerftPosition.KIWIPETE.expectedNodes(2),
+                divide.values().stream().mapToLong(Long::longValue).sum());
+        // Both castles are available to white in Kiwipete
+        Assertions.assertEquals(43, divide.get(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null)));
+        Assertions.assertEquals(43, divide.get(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 3), null)));
+    }
+
+    @Test
+    @DisplayName("Perft With Attack Tracking")
+    public void attackTracking() {
+        ChessGame game = PerftPosition.PROMOTION.game();
+        game.setAttackTracking(true);
+        Assertions.assertEquals(PerftPosition.PROMOTION.expectedNodes(3), game.perft(3));
+    }
+}
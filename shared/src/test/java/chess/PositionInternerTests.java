@@ -0,0 +1,147 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+public class PositionInternerTests {
+
+    @Test
+    @DisplayName("Games In The Same Opening Share A Board")
+    public void sameOpeningShares() throws InvalidMoveException {
+        var interner = new PositionInterner();
+        var first = new ChessGame();
+        var second = new ChessGame();
+        first.setPositionInterner(interner);
+        second.setPositionInterner(interner);
+
+        for (ChessMove move : new ChessMove[]{move(2, 5, 4, 5), move(7, 5, 5, 5), move(1, 7, 3, 6)}) {
+            first.makeMove(move);
+            second.makeMove(move);
+            Assertions.assertSame(first.currentBoard(), second.currentBoard(), "Games did not share a board");
+        }
+        Assertions.assertEquals(4, interner.size());
+        Assertions.assertEquals(4, interner.getHits());
+    }
+
+    @Test
+    @DisplayName("Diverging Game Copies The Board")
+    public void divergingGameCopies() throws InvalidMoveException {
+        var interner = new PositionInterner();
+        var first = new ChessGame();
+        var second = new ChessGame();
+        first.setPositionInterner(interner);
+        second.setPositionInterner(interner);
+        first.makeMove(move(2, 5, 4, 5));
+        second.makeMove(move(2, 5, 4, 5));
+
+        first.makeMove(move(7, 5, 5, 5));
+        second.makeMove(move(7, 3, 5, 3));
+        Assertions.assertNotSame(first.currentBoard(), second.currentBoard());
+        Assertions.assertNull(first.currentBoard().getPiece(new ChessPosition(5, 3)));
+        Assertions.assertNull(second.currentBoard().getPiece(new ChessPosition(5, 5)));
+
+        // Changing a board handed out by getBoard must not reach the shared copy
+        first.getBoard().addPiece(new ChessPosition(4, 5), null);
+        var third = new ChessGame();
+        third.setPositionInterner(interner);
+        third.makeMove(move(2, 5, 4, 5));
+        third.makeMove(move(7, 5, 5, 5));
+        Assertions.assertNotNull(third.currentBoard().getPiece(new ChessPosition(4, 5)));
+    }
+
+    @Test
+    @DisplayName("Shared Moves Match Unshared Moves")
+    public void sharedMovesMatch() throws InvalidMoveException {
+        var interner = new PositionInterner();
+        var sharedGame = new ChessGame();
+        sharedGame.setPositionInterner(interner);
+        var plainGame = new ChessGame();
+
+        for (ChessMove move : new ChessMove[]{move(2, 5, 4, 5), move(7, 4, 5, 4), move(4, 5, 5, 4)}) {
+            sharedGame.makeMove(move);
+            plainGame.makeMove(move);
+            for (int row = 1; row <= 8; row++) {
+                for (int col = 1; col <= 8; col++) {
+                    var position = new ChessPosition(row, col);
+                    var expected = plainGame.validMoves(position);
+                    var actual = sharedGame.validMoves(position);
+                    Assertions.assertEquals(expected == null ? null : new HashSet<>(expected),
+                            actual == null ? null : new HashSet<>(actual));
+                }
+            }
+        }
+        Assertions.assertEquals(plainGame.getZobristKey(), sharedGame.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Sharing Stops After maxPly")
+    public void stopsAfterMaxPly() throws InvalidMoveException {
+        var interner = new PositionInterner(1, 100);
+        var game = new ChessGame();
+        game.setPositionInterner(interner);
+        game.makeMove(move(2, 5, 4, 5));
+        game.makeMove(move(7, 5, 5, 5));
+        Assertions.assertEquals(2, interner.size());
+    }
+
+    @Test
+    @DisplayName("Attack Tracking Survives Sharing")
+    public void attackTrackingWithInterner() throws InvalidMoveException {
+        var interner = new PositionInterner();
+        var tracked = new ChessGame();
+        tracked.setAttackTracking(true);
+        tracked.setPositionInterner(interner);
+        var untracked = new ChessGame();
+        untracked.setPositionInterner(interner);
+
+        tracked.makeMove(move(2, 5, 4, 5));
+        untracked.makeMove(move(2, 5, 4, 5));
+        Assertions.assertSame(tracked.currentBoard(), untracked.currentBoard());
+        Assertions.assertNull(untracked.currentBoard().getAttackMap(), "Tracked game's map reached the shared board");
+
+        tracked.makeMove(move(7, 5, 5, 5));
+        untracked.makeMove(move(7, 4, 5, 4));
+        Assertions.assertNotNull(tracked.getBoard().getAttackMap(), "Tracking was lost after leaving the interner");
+        Assertions.assertNull(untracked.getBoard().getAttackMap());
+
+        var recounted = new ChessBoard(tracked.getBoard());
+        recounted.setAttackTracking(false);
+        recounted.setAttackTracking(true);
+        for (var color : ChessGame.TeamColor.values()) {
+            for (int square = 0; square < 64; square++) {
+                Assertions.assertEquals(recounted.getAttackMap().count(color, square),
+                        tracked.getBoard().getAttackMap().count(color, square));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Keys Survive A JSON Round Trip")
+    public void jsonRoundTrip() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5));
+        String json = new Gson().toJson(game);
+        Assertions.assertFalse(json.contains("zobristKey") || json.contains("occupancy"), json);
+
+        ChessGame loaded = new Gson().fromJson(json, ChessGame.class);
+        Assertions.assertEquals(game.getZobristKey(), loaded.getZobristKey());
+        Assertions.assertEquals(game.currentBoard().getOccupancy(), loaded.currentBoard().getOccupancy());
+
+        // Older stored games carry the cached fields, possibly with wrong values
+        ChessGame stale = new Gson().fromJson(json.replace("\"board\":{", "\"board\":{\"zobristKey\":1,\"occupancy\":2,"),
+                ChessGame.class);
+        Assertions.assertEquals(game.getZobristKey(), stale.getZobristKey());
+
+        loaded.makeMove(move(7, 5, 5, 5));
+        game.makeMove(move(7, 5, 5, 5));
+        Assertions.assertEquals(game.getZobristKey(), loaded.getZobristKey());
+    }
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+    }
+}
@@ -0,0 +1,94 @@
+package chess.engine;
+
+import chess.Fen;
+import chess.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.SplittableRandom;
+
+public class EvaluatorTests {
+
+    @ParameterizedTest
+    @EnumSource(PerftPosition.class)
+    @DisplayName("Same Score With Colors Swapped")
+    public void symmetric(PerftPosition perftPosition) {
+        Position position = Position.fromFen(perftPosition.fen());
+        Position mirrored = Position.fromFen(mirror(perftPosition.fen()));
+        Assertions.assertEquals(Evaluator.evaluate(position), Evaluator.evaluate(mirrored));
+    }
+
+    @Test
+    @DisplayName("Start Position Is Even")
+    public void startPosition() {
+        Position position = Position.fromFen(Fen.START_POSITION);
+        Assertions.assertEquals(0, Evaluator.evaluate(position));
+        Assertions.assertEquals(Evaluator.MAX_PHASE, position.phase());
+    }
+
+    @Test
+    @DisplayName("Endgame Prefers A Central King")
+    public void tapered() {
+        // With only pawns left the king belongs in the middle, not in its castled corner
+        int central = Evaluator.evaluate(Position.fromFen("8/5ppp/8/8/4K3/8/5PPP/6k1 w - - 0 1"));
+        int corner = Evaluator.evaluate(Position.fromFen("8/5ppp/8/8/8/8/5PPP/6Kk w - - 0 1"));
+        Assertions.assertTrue(central > corner, "central " + central + ", corner " + corner);
+    }
+
+    @Test
+    @DisplayName("Incremental Scores Match Rebuilt Position")
+    public void incremental() {
+        var random = new SplittableRandom(48);
+        int[] moves = new int[Position.MAX_MOVES];
+        for (PerftPosition start : PerftPosition.values()) {
+            Position position = Position.fromFen(start.fen());
+            for (int ply = 0; ply < 80; ply++) {
+                int count = position.generateLegalMoves(moves, 0);
+                if (count == 0) {
+                    break;
+                }
+                position.makeMove(moves[random.nextInt(count)]);
+                Position rebuilt = Position.fromFen(position.toFen());
+                Assertions.assertEquals(rebuilt.middlegameScore(), position.middlegameScore(), position.toFen());
+                Assertions.assertEquals(rebuilt.endgameScore(), position.endgameScore(), position.toFen());
+                Assertions.assertEquals(rebuilt.phase(), position.phase(), position.toFen());
+            }
+        }
+    }
+
+    /**
+     * @return the same position with the board flipped and the colors swapped
+     */
+    private static String mirror(String fen) {
+        String[] fields = fen.split(" ");
+        String[] rows = fields[0].split("/");
+        StringBuilder board = new StringBuilder();
+        for (int i = 7; i >= 0; i--) {
+            board.append(swapCase(rows[i])).append(i > 0 ? "/" : "");
+        }
+        String castling = fields[2].equals("-") ? "-" : sortCastling(swapCase(fields[2]));
+        String enPassant = fields[3].equals("-") ? "-" : fields[3].charAt(0) + String.valueOf(9 - (fields[3].charAt(1) - '0'));
+        return board + " " + (fields[1].equals("w") ? "b" : "w") + " " + castling + " " + enPassant + " 0 1";
+    }
+
+    private static String swapCase(String text) {
+        StringBuilder swapped = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            swapped.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        }
+        return swapped.toString();
+    }
+
+    private static String sortCastling(String castling) {
+        StringBuilder sorted = new StringBuilder();
+        for (char c : "KQkq".toCharArray()) {
+            if (castling.indexOf(c) >= 0) {
+                sorted.append(c);
+            }
+        }
+        return sorted.toString();
+    }
+}
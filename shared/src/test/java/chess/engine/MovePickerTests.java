@@ -0,0 +1,92 @@
+package chess.engine;
+
+import chess.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MovePickerTests {
+
+    private final Position position = Position.of(PerftPosition.KIWIPETE.game());
+    private final int[] moves = new int[Position.MAX_MOVES];
+    private final int[] scores = new int[Position.MAX_MOVES];
+
+    @Test
+    @DisplayName("Hash Move, Then Captures By MVV-LVA, Then Quiet Moves")
+    public void order() {
+        int count = position.generateMoves(moves, 0);
+        int hashMove = firstQuiet(count);
+
+        List<Integer> picked = pickAll(new MovePicker(), count, Move.squaresAndPromotion(hashMove), 0);
+
+        Assertions.assertEquals(hashMove, picked.get(0));
+        int captures = (int) picked.stream().filter(Move::isTactical).count();
+        for (int i = 1; i <= captures; i++) {
+            Assertions.assertTrue(Move.isTactical(picked.get(i)), Move.toString(picked.get(i)));
+        }
+        for (int i = 2; i <= captures; i++) {
+            Assertions.assertTrue(MovePicker.mvvLva(position, picked.get(i - 1)) >= MovePicker.mvvLva(position, picked.get(i)));
+        }
+        Assertions.assertEquals(count, picked.size());
+    }
+
+    @Test
+    @DisplayName("Killers Follow Captures And History Orders Quiet Moves")
+    public void killersAndHistory() {
+        int count = position.generateMoves(moves, 0);
+        int captures = (int) pickAll(new MovePicker(), count, Move.NONE, 0).stream().filter(Move::isTactical).count();
+        var picker = new MovePicker();
+        int killer = lastQuiet(count);
+        picker.cutoff(position, killer, 4, 0);
+
+        List<Integer> picked = pickAll(picker, count, Move.NONE, 0);
+        Assertions.assertEquals(killer, picked.get(captures));
+
+        // At another ply the killer does not apply, but its history still puts it first among quiet moves
+        picked = pickAll(picker, count, Move.NONE, 1);
+        Assertions.assertEquals(killer, picked.get(captures));
+
+        picker.newSearch();
+        picked = pickAll(picker, count, Move.NONE, 0);
+        Assertions.assertEquals(killer, picked.get(captures), "history should fade, not vanish, between searches");
+    }
+
+    @Test
+    @DisplayName("Ordering Saves Search Work")
+    public void savesNodes() {
+        // With only the TT move to go on, this search took about 2.6M nodes
+        SearchResult result = new Search(Position.of(PerftPosition.MIDDLEGAME.game()), new TranspositionTable(16))
+                .run(SearchLimits.depth(6), null);
+        Assertions.assertTrue(result.nodes() < 600_000, "searched " + result.nodes() + " nodes");
+    }
+
+    private List<Integer> pickAll(MovePicker picker, int count, int hashMove, int ply) {
+        picker.score(position, moves, scores, 0, count, hashMove, ply);
+        List<Integer> picked = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            picked.add(MovePicker.pick(moves, scores, i, count));
+        }
+        return picked;
+    }
+
+    private int firstQuiet(int count) {
+        for (int i = 0; i < count; i++) {
+            if (!Move.isTactical(moves[i])) {
+                return moves[i];
+            }
+        }
+        throw new AssertionError("no quiet moves");
+    }
+
+    private int lastQuiet(int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            if (!Move.isTactical(moves[i])) {
+                return moves[i];
+            }
+        }
+        throw new AssertionError("no quiet moves");
+    }
+}
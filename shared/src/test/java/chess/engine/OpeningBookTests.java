@@ -0,0 +1,154 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+public class OpeningBookTests {
+
+    private static final String CASTLING_FEN = "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1";
+
+    // Books only need the same table to be used for building and reading, so any table will do here
+    private static final PolyglotKeys KEYS = new PolyglotKeys(new SplittableRandom(50).longs(PolyglotKeys.TABLE_SIZE).toArray());
+
+    @TempDir
+    Path directory;
+
+    private record Entry(long key, int move, int weight) {
+    }
+
+    @Test
+    @DisplayName("Finds Legal Book Moves With Weights")
+    public void moves() throws IOException {
+        OpeningBook book = OpeningBook.open(sampleBook(), KEYS);
+        Assertions.assertEquals(1004, book.size());
+
+        List<OpeningBook.BookMove> moves = book.moves(Position.fromFen(Fen.START_POSITION));
+        Assertions.assertEquals(List.of(
+                new OpeningBook.BookMove(move(2, 5, 4, 5), 3),
+                new OpeningBook.BookMove(move(2, 4, 4, 4), 1)), moves, "the illegal e2e5 should be left out");
+
+        Assertions.assertEquals(List.of(), book.moves(Position.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1")));
+    }
+
+    @Test
+    @DisplayName("Castling Written As King Takes Rook")
+    public void castling() throws IOException {
+        OpeningBook book = OpeningBook.open(sampleBook(), KEYS);
+        List<OpeningBook.BookMove> moves = book.moves(Position.fromFen(CASTLING_FEN));
+        Assertions.assertEquals(List.of(new OpeningBook.BookMove(move(1, 5, 1, 7), 1),
+                new OpeningBook.BookMove(move(1, 5, 1, 3), 1)), moves);
+    }
+
+    @Test
+    @DisplayName("Picks Moves In Proportion To Weight")
+    public void weightedPick() throws IOException {
+        OpeningBook book = OpeningBook.open(sampleBook(), KEYS);
+        var random = new SplittableRandom(1);
+        int kingsPawn = 0;
+        for (int i = 0; i < 4000; i++) {
+            if (book.pick(Fen.parse(Fen.START_POSITION), random).equals(move(2, 5, 4, 5))) {
+                kingsPawn++;
+            }
+        }
+        Assertions.assertEquals(3000, kingsPawn, 150);
+    }
+
+    @Test
+    @DisplayName("Engine Plays Book Moves Without Searching")
+    public void engineUsesBook() throws IOException {
+        Engine engine = new Engine();
+        engine.setBook(OpeningBook.open(sampleBook(), KEYS));
+        SearchResult result = engine.search(Fen.parse(Fen.START_POSITION), SearchLimits.depth(6));
+        Assertions.assertEquals(0, result.nodes());
+        Assertions.assertTrue(List.of(move(2, 5, 4, 5), move(2, 4, 4, 4)).contains(result.bestMove()));
+
+        result = engine.search(Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1"), SearchLimits.depth(2));
+        Assertions.assertTrue(result.nodes() > 0, "searches when out of book");
+    }
+
+    @Test
+    @DisplayName("En Passant Only Keyed When Capturable")
+    public void enPassantKey() {
+        long withoutCapture = KEYS.key(Position.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - e3 0 1"));
+        Assertions.assertEquals(KEYS.key(Position.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - - 0 1")), withoutCapture);
+
+        long withCapture = KEYS.key(Position.fromFen("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1"));
+        Assertions.assertNotEquals(KEYS.key(Position.fromFen("4k3/8/8/8/3pP3/8/8/4K3 b - - 0 1")), withCapture);
+    }
+
+    @Test
+    @DisplayName("Key Table Loaded From File")
+    public void loadKeys() throws IOException {
+        long[] random = new SplittableRandom(50).longs(PolyglotKeys.TABLE_SIZE).toArray();
+        Path file = directory.resolve("random64.txt");
+        Files.writeString(file, "# test table\n" + LongStream.of(random)
+                .mapToObj(value -> String.format("0x%016X", value))
+                .collect(Collectors.joining("\n")));
+        Position position = Position.fromFen(CASTLING_FEN);
+        Assertions.assertEquals(KEYS.key(position), PolyglotKeys.load(file).key(position));
+
+        Files.writeString(file, "0x1\n0x2\n");
+        Assertions.assertThrows(IOException.class, () -> PolyglotKeys.load(file));
+    }
+
+    @Test
+    @DisplayName("Rejects Files That Are Not Books")
+    public void notABook() throws IOException {
+        Path file = directory.resolve("broken.bin");
+        Files.write(file, new byte[17]);
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(file, KEYS));
+    }
+
+    /**
+     * @return a book with moves for the start position and the castling position, hidden
+     * among entries for a thousand other keys
+     */
+    private Path sampleBook() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long start = KEYS.key(Position.fromFen(Fen.START_POSITION));
+        entries.add(new Entry(start, polyglot(12, 28, 0), 3));
+        entries.add(new Entry(start, polyglot(11, 27, 0), 1));
+        entries.add(new Entry(start, polyglot(12, 36, 0), 5));
+        long castling = KEYS.key(Position.fromFen(CASTLING_FEN));
+        entries.add(new Entry(castling, polyglot(4, 7, 0), 1));
+        entries.add(new Entry(castling, polyglot(4, 0, 0), 1));
+        var random = new SplittableRandom(2);
+        for (int i = 0; i < 999; i++) {
+            entries.add(new Entry(random.nextLong(), polyglot(random.nextInt(64), random.nextInt(64), 0), 1));
+        }
+        // Sorted by key as unsigned, keeping each key's moves in the order they were added
+        entries.sort(Comparator.comparing(Entry::key, Long::compareUnsigned));
+
+        ByteBuffer buffer = ByteBuffer.allocate(entries.size() * 16);
+        for (Entry entry : entries) {
+            buffer.putLong(entry.key()).putShort((short) entry.move()).putShort((short) entry.weight()).putInt(0);
+        }
+        Path file = directory.resolve("book.bin");
+        Files.write(file, buffer.array());
+        return file;
+    }
+
+    private static int polyglot(int from, int to, int promotion) {
+        return to % 8 | to / 8 << 3 | from % 8 << 6 | from / 8 << 9 | promotion << 12;
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+    }
+}
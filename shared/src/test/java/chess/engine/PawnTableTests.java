@@ -0,0 +1,59 @@
+package chess.engine;
+
+import chess.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+public class PawnTableTests {
+
+    @Test
+    @DisplayName("Scores Doubled, Isolated And Passed Pawns")
+    public void structure() {
+        var table = new PawnTable(16);
+        // Black has no pawns, so everything White has is passed; the c-pawns are doubled and isolated
+        Position position = Position.fromFen("4k3/8/8/8/2P5/2P5/8/4K3 w - - 0 1");
+        int slot = table.probe(position);
+        Assertions.assertEquals(1L << 26, table.passed(slot), "only the front c-pawn is passed");
+        Assertions.assertEquals(-10 - 2 * 12 + 15, table.middlegame(slot));
+
+        // A pawn on the next file stops a passed pawn; one behind does not
+        position = Position.fromFen("4k3/8/8/8/2P5/8/1p6/4K3 w - - 0 1");
+        slot = table.probe(position);
+        Assertions.assertEquals(1L << 26 | 1L << 9, table.passed(slot));
+        position = Position.fromFen("4k3/3p4/8/8/2P5/8/8/4K3 w - - 0 1");
+        Assertions.assertEquals(0, table.passed(table.probe(position)));
+    }
+
+    @Test
+    @DisplayName("Cached Structure Matches A Fresh One")
+    public void cached() {
+        var table = new PawnTable(64);
+        var random = new SplittableRandom(49);
+        int[] moves = new int[Position.MAX_MOVES];
+        for (PerftPosition start : PerftPosition.values()) {
+            Position position = Position.fromFen(start.fen());
+            for (int ply = 0; ply < 80; ply++) {
+                int count = position.generateLegalMoves(moves, 0);
+                if (count == 0) {
+                    break;
+                }
+                position.makeMove(moves[random.nextInt(count)]);
+                Position rebuilt = Position.fromFen(position.toFen());
+                Assertions.assertEquals(rebuilt.pawnKey(), position.pawnKey(), position.toFen());
+                Assertions.assertEquals(Evaluator.evaluate(rebuilt), Evaluator.evaluate(position, table), position.toFen());
+            }
+        }
+        Assertions.assertTrue(table.hitRate() > 0.5, "hit rate " + table.hitRate());
+    }
+
+    @Test
+    @DisplayName("Search Mostly Hits")
+    public void hitRate() {
+        Search search = new Search(Position.of(PerftPosition.MIDDLEGAME.game()), new TranspositionTable(16));
+        search.run(SearchLimits.depth(6), null);
+        Assertions.assertTrue(search.pawnHitRate() > 0.9, "hit rate " + search.pawnHitRate());
+    }
+}
@@ -0,0 +1,181 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.DifferentialFuzzer;
+import chess.Fen;
+import chess.InvalidMoveException;
+import chess.MoveGenerator;
+import chess.PerftPosition;
+import chess.ReferenceMoveGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class PositionTests {
+
+    // Keeps the suite quick; the engine's perft is fast enough for more, but this covers every rule
+    private static final long NODE_BUDGET = 5_000_000;
+
+    /**
+     * Lists legal moves with an engine Position, so the fuzzer can check it
+     */
+    static final MoveGenerator POSITION_MOVES = game -> {
+        Position position = Position.of(game);
+        int[] moves = new int[Position.MAX_MOVES];
+        int count = position.generateLegalMoves(moves, 0);
+        Set<ChessMove> legal = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            legal.add(Move.toChessMove(moves[i]));
+        }
+        return legal;
+    };
+
+    @ParameterizedTest
+    @EnumSource(PerftPosition.class)
+    @DisplayName("Perft Matches Published Counts")
+    public void perft(PerftPosition perftPosition) {
+        Position position = Position.fromFen(perftPosition.fen());
+        for (int depth = 1; depth <= perftPosition.maxDepth() &&
+                perftPosition.expectedNodes(depth) <= NODE_BUDGET; depth++) {
+            Assertions.assertEquals(perftPosition.expectedNodes(depth), position.perft(depth),
+                    perftPosition + " at depth " + depth);
+        }
+        Assertions.assertEquals(perftPosition.fen(), position.toFen(), "perft changed the position");
+    }
+
+    @Test
+    @DisplayName("Agrees With Reference Generator")
+    public void fuzz() {
+        var fuzzer = new DifferentialFuzzer(new ReferenceMoveGenerator(), Map.of("position", POSITION_MOVES), 80);
+        DifferentialFuzzer.Result result = fuzzer.run(8, 2, 4_240);
+        Assertions.assertEquals(List.of(), result.mismatches());
+    }
+
+    @Test
+    @DisplayName("Make And Unmake Keep The Key")
+    public void keyIsIncremental() {
+        Position position = Position.fromFen(PerftPosition.KIWIPETE.fen());
+        int[] moves = new int[Position.MAX_MOVES];
+        int count = position.generateMoves(moves, 0);
+        for (int i = 0; i < count; i++) {
+            long before = position.key();
+            if (position.makeMove(moves[i])) {
+                Assertions.assertEquals(Position.fromFen(position.toFen()).key(), position.key(), Move.toString(moves[i]));
+                position.unmakeMove(moves[i]);
+            }
+            Assertions.assertEquals(before, position.key());
+        }
+    }
+
+    @Test
+    @DisplayName("Key Matches The Game's Zobrist Key")
+    public void keyMatchesGame() throws InvalidMoveException {
+        ChessGame game = Fen.parse(PerftPosition.KIWIPETE.fen());
+        Position position = Position.of(game);
+        Assertions.assertEquals(game.getZobristKey(), position.key());
+
+        // A double push sets an en passant square in both
+        game.makeMove(new ChessMove(new ChessPosition(2, 1), new ChessPosition(4, 1), null));
+        int[] moves = new int[Position.MAX_MOVES];
+        int count = position.generateLegalMoves(moves, 0);
+        for (int i = 0; i < count; i++) {
+            if (Move.toString(moves[i]).equals("a2a4")) {
+                position.makeMove(moves[i]);
+            }
+        }
+        Assertions.assertEquals(game.getZobristKey(), position.key());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQ1BNR w kq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNK w kq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq z9 0 1"
+    })
+    @DisplayName("Rejects Bad FEN")
+    public void rejectsBadFen(String fen) {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Position.fromFen(fen));
+    }
+
+    @Test
+    @DisplayName("Repetition")
+    public void repetition() {
+        Position position = Position.fromFen(Fen.START_POSITION);
+        int[] knightsOutAndBack = {
+                Move.make(6, 21, 0), Move.make(62, 45, 0), Move.make(21, 6, 0), Move.make(45, 62, 0)
+        };
+        for (int move : knightsOutAndBack) {
+            Assertions.assertFalse(position.isRepetition());
+            Assertions.assertTrue(position.makeMove(move));
+        }
+        Assertions.assertTrue(position.isRepetition());
+    }
+
+    @Test
+    @DisplayName("Null Move")
+    public void nullMove() {
+        Position position = Position.fromFen("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1");
+        long key = position.key();
+        position.makeNullMove();
+        Assertions.assertEquals(Piece.WHITE, position.sideToMove());
+        Assertions.assertEquals("4k3/8/8/8/3pP3/8/8/4K3 w - - 0 1", position.toFen().replaceAll(" \\d+$", " 1"));
+        Assertions.assertEquals(Position.fromFen("4k3/8/8/8/3pP3/8/8/4K3 w - - 0 1").key(), position.key());
+        position.unmakeNullMove();
+        Assertions.assertEquals(key, position.key());
+        Assertions.assertEquals("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1", position.toFen());
+
+        Assertions.assertFalse(position.hasNonPawnMaterial(Piece.WHITE));
+        Assertions.assertTrue(Position.fromFen(Fen.START_POSITION).hasNonPawnMaterial(Piece.BLACK));
+    }
+
+    @Test
+    @DisplayName("Built From A Game")
+    public void fromGame() {
+        ChessGame game = PerftPosition.PROMOTION.game();
+        Assertions.assertEquals(Fen.format(game), Position.of(game).toFen());
+    }
+
+    @Test
+    @DisplayName("Static Exchange Evaluation")
+    public void staticExchange() {
+        // Rook takes an undefended pawn
+        Assertions.assertEquals(100, exchange("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", 4, 36));
+        // Knight takes a pawn, and the pieces lined up behind on both sides settle it as knight for pawn
+        Assertions.assertEquals(100 - 320,
+                exchange("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", 19, 36));
+        // Queen takes a pawn defended by a pawn
+        Assertions.assertEquals(100 - 900, exchange("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1", 11, 35));
+        // Pawn takes en passant, and the recapture only wins the pawn back
+        Assertions.assertEquals(0, exchange("3rk3/8/8/2Pp4/8/8/8/4K3 w - d6 0 1", 34, 43));
+        // Promoting where the new queen is taken at once loses the pawn
+        Assertions.assertEquals(-100, exchange("3rk3/2P5/8/8/8/8/8/4K3 w - - 0 1", 50, 58, Piece.QUEEN));
+    }
+
+    private static int exchange(String fen, int from, int to) {
+        return exchange(fen, from, to, Piece.NONE);
+    }
+
+    private static int exchange(String fen, int from, int to, int promotion) {
+        Position position = Position.fromFen(fen);
+        int[] moves = new int[Position.MAX_MOVES];
+        int end = position.generateMoves(moves, 0);
+        for (int i = 0; i < end; i++) {
+            if (Move.from(moves[i]) == from && Move.to(moves[i]) == to && Move.promotion(moves[i]) == promotion) {
+                return position.staticExchange(moves[i]);
+            }
+        }
+        throw new AssertionError("no move from " + from + " to " + to + " in " + fen);
+    }
+}
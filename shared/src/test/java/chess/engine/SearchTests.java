@@ -0,0 +1,188 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void mateInOne() {
+        ChessGame game = Fen.parse("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4");
+        SearchResult result = new Engine().search(game, SearchLimits.depth(4));
+
+        Assertions.assertEquals(move(5, 8, 7, 6), result.bestMove());
+        Assertions.assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    @DisplayName("Finds Rook Ladder Mate In Two")
+    public void mateInTwo() {
+        // One rook cuts the king off on the seventh rank, the other mates on the eighth
+        ChessGame game = Fen.parse("7k/8/8/8/8/8/8/RR4K1 w - - 0 1");
+        SearchResult result = new Engine().search(game, SearchLimits.depth(5));
+
+        Assertions.assertEquals(2, result.mateIn());
+        Assertions.assertEquals(3, result.principalVariation().size());
+    }
+
+    @Test
+    @DisplayName("Takes A Free Queen")
+    public void winsMaterial() {
+        ChessGame game = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new Engine().search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(move(2, 4, 5, 4), result.bestMove());
+        Assertions.assertTrue(result.score() > 300);
+    }
+
+    @Test
+    @DisplayName("Quiescence Sees The Recapture")
+    public void quiescence() {
+        // At depth 1, taking the pawn looks like a pawn up unless the recapture is played out
+        ChessGame game = Fen.parse("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1");
+        SearchResult result = new Engine().search(game, SearchLimits.depth(1));
+
+        Assertions.assertNotEquals(move(2, 4, 5, 4), result.bestMove());
+        Assertions.assertTrue(result.score() < 900, "score " + result.score());
+    }
+
+    @Test
+    @DisplayName("Mate Seen Past The Horizon")
+    public void mateAtHorizon() {
+        // At depth 1 the bishop taking the knight looks best unless the back rank mate is searched out
+        ChessGame game = Fen.parse("6k1/5ppp/8/8/8/2n5/1B3PPP/R5K1 w - - 0 1");
+        SearchResult result = new Engine().search(game, SearchLimits.depth(1));
+
+        Assertions.assertEquals(move(1, 1, 8, 1), result.bestMove());
+        Assertions.assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    @DisplayName("No Move When Checkmated Or Stalemated")
+    public void noLegalMoves() {
+        SearchResult mated = new Engine().search(Fen.parse("7k/6Q1/6K1/8/8/8/8/8 b - - 0 1"), SearchLimits.depth(3));
+        Assertions.assertNull(mated.bestMove());
+        Assertions.assertEquals(-Search.MATE, mated.score());
+        Assertions.assertTrue(mated.isMate());
+        Assertions.assertEquals(0, mated.mateIn());
+        Assertions.assertTrue(mated.toString().contains("score mate 0"), mated.toString());
+
+        SearchResult stalemate = new Engine().search(Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"), SearchLimits.depth(3));
+        Assertions.assertNull(stalemate.bestMove());
+        Assertions.assertEquals(0, stalemate.score());
+        Assertions.assertFalse(stalemate.isMate());
+    }
+
+    @Test
+    @DisplayName("Iterations Reported Until Depth Limit")
+    public void iterativeDeepening() {
+        ChessGame game = PerftPosition.KIWIPETE.game();
+        List<SearchResult> iterations = new ArrayList<>();
+        SearchResult result = new Engine().search(game, SearchLimits.depth(4), iterations::add);
+
+        Assertions.assertEquals(List.of(1, 2, 3, 4), iterations.stream().map(SearchResult::depth).toList());
+        Assertions.assertEquals(iterations.get(3), result);
+        Assertions.assertTrue(result.nodes() > iterations.get(2).nodes());
+        Assertions.assertEquals(PerftPosition.KIWIPETE.fen(), Fen.format(game), "search changed the game");
+    }
+
+    @Test
+    @DisplayName("Node Limit")
+    public void nodeLimit() {
+        SearchResult result = new Engine().search(PerftPosition.MIDDLEGAME.game(), SearchLimits.nodes(20_000));
+
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(result.nodes() < 30_000, "searched " + result.nodes() + " nodes");
+    }
+
+    @Test
+    @DisplayName("Stop From Another Thread")
+    public void stop() throws Exception {
+        Engine engine = new Engine();
+        var search = CompletableFuture.supplyAsync(() ->
+                engine.search(PerftPosition.KIWIPETE.game(), new SearchLimits(0, 0, 0)));
+        Thread.sleep(200);
+        engine.stop();
+
+        SearchResult result = search.get(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(result.bestMove());
+    }
+
+    @Test
+    @DisplayName("Stopped Before Starting Still Completes An Iteration")
+    public void stopBeforeRun() {
+        Search search = new Search(Position.fromFen(PerftPosition.KIWIPETE.fen()));
+        search.stop();
+        SearchResult result = search.run(new SearchLimits(0, 0, 0), null);
+
+        Assertions.assertEquals(1, result.depth());
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertFalse(result.principalVariation().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Helper Threads Finish With The Main Search")
+    public void helperThreads() throws Exception {
+        Engine engine = new Engine(Engine.DEFAULT_HASH_MEGABYTES, 4);
+        SearchResult mate = engine.search(Fen.parse("7k/8/8/8/8/8/8/RR4K1 w - - 0 1"), SearchLimits.depth(5));
+        Assertions.assertEquals(2, mate.mateIn());
+
+        SearchResult timed = engine.search(PerftPosition.MIDDLEGAME.game(), SearchLimits.time(300));
+        Assertions.assertNotNull(timed.bestMove());
+        Assertions.assertTrue(engine.hashfull() > 0);
+
+        var search = CompletableFuture.supplyAsync(() ->
+                engine.search(PerftPosition.KIWIPETE.game(), new SearchLimits(0, 0, 0)));
+        Thread.sleep(200);
+        engine.stop();
+        Assertions.assertNotNull(search.get(5, TimeUnit.SECONDS).bestMove());
+
+        Assertions.assertTrue(Thread.getAllStackTraces().keySet().stream()
+                .noneMatch(thread -> thread.getName().startsWith("search-helper")), "helper threads left running");
+    }
+
+    @ParameterizedTest
+    @EnumSource(SearchFeature.class)
+    @DisplayName("Tactics Found With Each Feature Turned Off")
+    public void eachFeatureOff(SearchFeature feature) {
+        Set<SearchFeature> features = SearchFeature.all();
+        features.remove(feature);
+        Engine engine = new Engine(Engine.DEFAULT_HASH_MEGABYTES, 1, features);
+
+        Assertions.assertEquals(2, engine.search(Fen.parse("7k/8/8/8/8/8/8/RR4K1 w - - 0 1"), SearchLimits.depth(6))
+                .mateIn());
+        Assertions.assertEquals(move(2, 4, 5, 4),
+                engine.search(Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1"), SearchLimits.depth(5)).bestMove());
+    }
+
+    @Test
+    @DisplayName("Selective Search Saves Nodes")
+    public void selectiveSearch() {
+        Position position = Position.of(PerftPosition.MIDDLEGAME.game());
+        long plain = new Search(position.copy(), new TranspositionTable(16), SearchFeature.none())
+                .run(SearchLimits.depth(6), null).nodes();
+        long selective = new Search(position.copy(), new TranspositionTable(16), SearchFeature.all())
+                .run(SearchLimits.depth(6), null).nodes();
+
+        Assertions.assertTrue(selective * 3 < plain, "selective " + selective + " nodes, plain " + plain);
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+    }
+}
@@ -0,0 +1,119 @@
+package chess.engine;
+
+import chess.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Size Capped Below The Largest Array")
+    public void sizeCap() {
+        Assertions.assertEquals(1 << 16, TranspositionTable.entriesFor(1));
+        Assertions.assertEquals(TranspositionTable.MAX_ENTRIES, TranspositionTable.entriesFor(8192));
+        Assertions.assertEquals(TranspositionTable.MAX_ENTRIES, TranspositionTable.entriesFor(16384));
+        Assertions.assertEquals(TranspositionTable.MAX_ENTRIES, TranspositionTable.entriesFor(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Probe Finds Stored Entry")
+    public void probeFindsStore() {
+        var table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        int move = Move.make(12, 28, Move.DOUBLE_PUSH);
+        table.store(key, move, -1234, 7, TranspositionTable.LOWER_BOUND);
+
+        long entry = table.probe(key);
+        Assertions.assertEquals(Move.squaresAndPromotion(move), TranspositionTable.move(entry));
+        Assertions.assertEquals(-1234, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        Assertions.assertEquals(0, table.probe(key + 1), "Found an entry for the wrong key");
+
+        table.clear();
+        Assertions.assertEquals(0, table.probe(key));
+    }
+
+    @Test
+    @DisplayName("Deeper Entries Kept Until Next Search")
+    public void replacement() {
+        var table = new TranspositionTable(1);
+        long key = 42;
+        long sameSlot = key + table.capacity();
+        table.store(key, Move.NONE, 10, 8, TranspositionTable.UPPER_BOUND);
+        table.store(sameSlot, Move.NONE, 20, 2, TranspositionTable.UPPER_BOUND);
+        Assertions.assertNotEquals(0, table.probe(key));
+        Assertions.assertEquals(0, table.probe(sameSlot));
+
+        table.newSearch();
+        table.store(sameSlot, Move.NONE, 20, 2, TranspositionTable.UPPER_BOUND);
+        Assertions.assertEquals(0, table.probe(key), "Entry from an old search was kept");
+        Assertions.assertEquals(20, TranspositionTable.score(table.probe(sameSlot)));
+    }
+
+    @Test
+    @DisplayName("Best Move Kept When Position Searched Again")
+    public void keepsMove() {
+        var table = new TranspositionTable(1);
+        int move = Move.make(1, 18, Move.NONE);
+        table.store(99, move, 0, 3, TranspositionTable.EXACT);
+        table.store(99, Move.NONE, -50, 4, TranspositionTable.UPPER_BOUND);
+
+        long entry = table.probe(99);
+        Assertions.assertEquals(Move.squaresAndPromotion(move), TranspositionTable.move(entry));
+        Assertions.assertEquals(4, TranspositionTable.depth(entry));
+    }
+
+    @Test
+    @DisplayName("Concurrent Writers Never Produce Wrong Entries")
+    public void concurrentWriters() {
+        var table = new TranspositionTable(1);
+        // Few slots' worth of keys, so threads are always overwriting each other's entries
+        int keys = 4096;
+        List<CompletableFuture<Long>> workers = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            long seed = thread;
+            workers.add(CompletableFuture.supplyAsync(() -> {
+                var random = new SplittableRandom(seed);
+                long wrong = 0;
+                for (int i = 0; i < 200_000; i++) {
+                    long key = random.nextLong(keys) * 0x9E3779B97F4A7C15L;
+                    long entry = table.probe(key);
+                    if (entry != 0 && TranspositionTable.score(entry) != (short) key) {
+                        wrong++;
+                    }
+                    table.newSearch();
+                    table.store(key, Move.NONE, (short) key, random.nextInt(20), TranspositionTable.EXACT);
+                }
+                return wrong;
+            }));
+        }
+        for (var worker : workers) {
+            Assertions.assertEquals(0, worker.join());
+        }
+    }
+
+    @Test
+    @DisplayName("Table Saves Search Work")
+    public void savesNodes() {
+        Position position = Position.of(PerftPosition.KIWIPETE.game());
+        SearchResult plain = new Search(position.copy()).run(SearchLimits.depth(5), null);
+        var table = new TranspositionTable(1);
+        SearchResult hashed = new Search(position.copy(), table).run(SearchLimits.depth(5), null);
+
+        Assertions.assertTrue(hashed.nodes() < plain.nodes(),
+                "with table " + hashed.nodes() + " nodes, without " + plain.nodes());
+        Assertions.assertTrue(table.hashfull() > 0);
+
+        // Searching again finds most of the work already done
+        SearchResult again = new Search(position.copy(), table).run(SearchLimits.depth(5), null);
+        Assertions.assertTrue(again.nodes() < hashed.nodes());
+        Assertions.assertEquals(hashed.bestMove(), again.bestMove());
+    }
+}